@@ -3,9 +3,13 @@ package br.com.ada.currencyapi;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import br.com.ada.currencyapi.config.NativeHints;
 
 @SpringBootApplication
 @EnableFeignClients
+@ImportRuntimeHints(NativeHints.class)
 public class CurrencyApiApplication {
 
 	public static void main(String[] args) {
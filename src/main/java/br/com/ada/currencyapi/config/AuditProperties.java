@@ -0,0 +1,39 @@
+package br.com.ada.currencyapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Ring buffer slots, rounded up to a power of two.
+     */
+    private int capacity = 8192;
+    private int batchSize = 500;
+
+    /**
+     * How long the drainer sleeps when the buffer holds less than a batch.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+    private Overflow overflow = Overflow.DROP;
+
+    public enum Overflow {
+        /**
+         * Discard the record and count it in {@code currency.audit.dropped}.
+         */
+        DROP,
+        /**
+         * Write the record from the request thread, trading latency for completeness.
+         */
+        CALLER_RUNS
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.ada.currencyapi.config;
+
+import org.springframework.context.annotation.Bean;
+
+import br.com.ada.currencyapi.service.QuoteDecoder;
+import feign.codec.Decoder;
+
+/**
+ * Feign configuration of {@code CurrencyClient} only. Deliberately not a {@code @Configuration}, so
+ * component scanning does not apply it to the other clients.
+ */
+public class CurrencyClientConfiguration {
+
+    @Bean
+    public Decoder quoteDecoder() {
+        return new QuoteDecoder();
+    }
+}
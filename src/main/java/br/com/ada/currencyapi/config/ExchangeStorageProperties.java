@@ -0,0 +1,42 @@
+package br.com.ada.currencyapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.exchanges")
+public class ExchangeStorageProperties {
+
+    private Storage storage = Storage.COLLECTION;
+    private Backfill backfill = new Backfill();
+
+    public enum Storage {
+        /**
+         * Rates live in the {@code exchanges} collection table only.
+         */
+        COLLECTION,
+        /**
+         * Rates are written to both layouts and read from the collection table, while the compact
+         * column is backfilled.
+         */
+        DUAL,
+        /**
+         * Rates are written to both layouts and conversions read the compact column.
+         */
+        COMPACT
+    }
+
+    @Getter
+    @Setter
+    public static class Backfill {
+
+        /**
+         * Fill the compact column of existing currencies at startup, when writing it.
+         */
+        private boolean enabled;
+        private int batchSize = 500;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.ada.currencyapi.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Executors of the application's own work. With {@code spring.threads.virtual.enabled} the blocking
+ * ones hand every task a virtual thread, like Tomcat does with its requests in that mode, so waiting
+ * on the quote API no longer holds a platform thread. Otherwise {@code quoteExecutor} is a bounded pool
+ * with a bounded queue that rejects the overflow, so a slow or dead provider under load cannot grow
+ * the thread count without limit. {@code conversionExecutor} runs CPU-bound chunks and keeps its
+ * fixed pool of platform threads in both modes.
+ */
+@Configuration
+@EnableConfigurationProperties(ThreadingProperties.class)
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService quoteExecutor(Environment environment, ThreadingProperties properties) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("quote-", 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("quote-");
+        threadFactory.setDaemon(true);
+        int threads = Math.max(1, properties.getQuotePoolSize());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQuoteQueueCapacity())), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService conversionExecutor(@Value("${currency.stream.parallelism:0}") int parallelism) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("conversion-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), threadFactory);
+    }
+}
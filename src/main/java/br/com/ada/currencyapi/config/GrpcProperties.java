@@ -0,0 +1,36 @@
+package br.com.ada.currencyapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.grpc")
+public class GrpcProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * TCP port of the server; 0 picks a free one.
+     */
+    private int port = 9090;
+
+    /**
+     * Serve on an in-process transport with this name instead of a port, for tests.
+     */
+    private String inProcessName;
+
+    /**
+     * Conversions a single {@code BatchConvert} call may carry.
+     */
+    private int maxBatchSize = 1_000;
+
+    /**
+     * Conversions of one batch or stream running at a time. A stream stops reading requests while
+     * this many are in flight, so a fast client is slowed down by HTTP/2 flow control.
+     */
+    private int window = 64;
+
+}
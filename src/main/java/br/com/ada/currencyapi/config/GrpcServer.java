@@ -0,0 +1,106 @@
+package br.com.ada.currencyapi.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves every {@link BindableService} bean next to the servlet container, on its own port or, when
+ * {@code in-process-name} is set, on an in-process transport. Calls run on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set, else on gRPC's default cached pool. Stopping the
+ * context stops taking new calls and lets running ones finish for a few seconds.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(GrpcProperties.class)
+public class GrpcServer implements SmartLifecycle {
+
+    private final GrpcProperties properties;
+    private final List<BindableService> services;
+    private final boolean virtualThreads;
+    private volatile Server server;
+    private volatile ExecutorService executor;
+
+    public GrpcServer(GrpcProperties properties, List<BindableService> services, Environment environment) {
+        this.properties = properties;
+        this.services = services;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * Port the server listens on, or -1 when it is not running or is in-process.
+     */
+    public int getPort() {
+        Server current = server;
+        return Objects.isNull(current) ? -1 : current.getPort();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        ServerBuilder<?> builder = Objects.nonNull(properties.getInProcessName())
+                ? InProcessServerBuilder.forName(properties.getInProcessName())
+                : NettyServerBuilder.forPort(properties.getPort());
+        services.forEach(builder::addService);
+        if (virtualThreads) {
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-", 0).factory());
+            builder.executor(executor);
+        }
+
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server", e);
+        }
+        log.info("gRPC server started on {}", Objects.nonNull(properties.getInProcessName())
+                ? "in-process transport " + properties.getInProcessName()
+                : "port " + server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (Objects.isNull(current)) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(5, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (Objects.nonNull(executor)) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return Objects.nonNull(server);
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.ada.currencyapi.config;
+
+import java.util.List;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import br.com.ada.currencyapi.domain.ConversionAuditResponse;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
+import br.com.ada.currencyapi.domain.CreateCurrencyResponse;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+import br.com.ada.currencyapi.domain.CurrencyRequest;
+import br.com.ada.currencyapi.domain.CurrencyResponse;
+import br.com.ada.currencyapi.domain.FrankfurterRates;
+import br.com.ada.currencyapi.domain.RateUpdateRequest;
+import br.com.ada.currencyapi.service.CurrencyClient;
+import br.com.ada.currencyapi.service.FrankfurterClient;
+
+/**
+ * Hints the AOT engine cannot infer on its own: Jackson binds the Lombok-built domain classes and the
+ * upstream quote records reflectively, and Feign backs each client interface with a JDK proxy.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> BOUND_TYPES = List.of(
+            ConversionAuditResponse.class,
+            ConvertCurrencyRequest.class,
+            ConvertCurrencyResponse.class,
+            CreateCurrencyResponse.class,
+            Currency.class,
+            CurrencyQuote.class,
+            CurrencyRequest.class,
+            CurrencyResponse.class,
+            FrankfurterRates.class,
+            RateUpdateRequest.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BOUND_TYPES.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS));
+        hints.proxies().registerJdkProxy(CurrencyClient.class);
+        hints.proxies().registerJdkProxy(FrankfurterClient.class);
+    }
+}
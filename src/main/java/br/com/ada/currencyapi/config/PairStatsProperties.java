@@ -0,0 +1,29 @@
+package br.com.ada.currencyapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.stats")
+public class PairStatsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Granularity of the sliding windows; counts older than {@code slice * slices} are forgotten.
+     */
+    private Duration slice = Duration.ofSeconds(30);
+    private int slices = 30;
+
+    /**
+     * Pairs tracked individually. Pairs idle over the whole horizon make room for new ones; conversions of
+     * further pairs are counted under {@code *:*} while every tracked pair is still active.
+     */
+    private int maxPairs = 2_000;
+
+}
@@ -0,0 +1,49 @@
+package br.com.ada.currencyapi.config;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.providers")
+public class QuoteProviderProperties {
+
+    /**
+     * Provider names in preference order; the first is the primary. Empty means every provider, in bean order.
+     */
+    private List<String> order = new ArrayList<>();
+    private Duration timeout = Duration.ofSeconds(2);
+    private Hedge hedge = new Hedge();
+    private Median median = new Median();
+
+    @Getter
+    @Setter
+    public static class Hedge {
+
+        /**
+         * Latency percentile of the primary after which the next provider is asked as well.
+         */
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private int window = 256;
+    }
+
+    @Getter
+    @Setter
+    public static class Median {
+
+        /**
+         * Conversions of at least this amount take the median of several providers. Unset disables it.
+         */
+        private BigDecimal minAmount;
+        private int providers = 3;
+    }
+}
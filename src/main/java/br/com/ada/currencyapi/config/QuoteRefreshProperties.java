@@ -0,0 +1,86 @@
+package br.com.ada.currencyapi.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.quotes.refresh")
+public class QuoteRefreshProperties {
+
+    private boolean enabled;
+
+    /**
+     * Pairs kept fresh in {@code upstream_quote}, as {@code USD-BRL}.
+     */
+    private List<String> pairs = new ArrayList<>();
+
+    /**
+     * Refresh interval of every pair, or of the pairs whose volatility is not known yet when
+     * {@code adaptive} is enabled.
+     */
+    private Duration interval = Duration.ofSeconds(60);
+
+    /**
+     * Pairs are split into this many shards, each refreshed by one node at a time. Every node must
+     * use the same value.
+     */
+    private int shards = 1;
+
+    /**
+     * How long a node keeps a shard without renewing it, which bounds failover after a crash.
+     * Leases are renewed every third of it, which is also how long a round may spend refreshing; it
+     * should be several times the upstream timeout.
+     */
+    private Duration lease = Duration.ofSeconds(15);
+
+    /**
+     * Name of this node in {@code quote_lease}; defaults to the host name plus a random suffix.
+     */
+    private String nodeId;
+
+    /**
+     * Upstream conversions use a shared quote no older than this instead of calling the quote API.
+     */
+    private Duration maxAge = Duration.ofMinutes(2);
+
+    private Adaptive adaptive = new Adaptive();
+
+    @Getter
+    @Setter
+    public static class Adaptive {
+
+        /**
+         * Gives each pair the interval over which it is expected to drift by {@code tolerance},
+         * shortened for pairs in demand. Demand is the pair's upstream conversions (warm-up excluded)
+         * over {@code demand-window}, summed over the nodes that reported theirs to
+         * {@code quote_demand} within a lease. Pairs no node converted upstream wait
+         * {@code max-interval}.
+         */
+        private boolean enabled;
+        private Duration minInterval = Duration.ofSeconds(5);
+        private Duration maxInterval = Duration.ofMinutes(15);
+
+        /**
+         * Relative drift a quote may accumulate before it is due; 0.0005 is 5 basis points.
+         */
+        private double tolerance = 0.0005;
+        private Duration demandWindow = Duration.ofMinutes(5);
+
+        /**
+         * Upstream conversions per second, across the cluster, at which a pair's interval is halved.
+         */
+        private double busyRate = 1.0;
+
+        /**
+         * Weight of each new observation in a pair's volatility average.
+         */
+        private double smoothing = 0.3;
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.ada.currencyapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled;
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    /**
+     * Query run against the replica returning its replication lag in seconds, e.g.
+     * {@code select extract(epoch from now() - pg_last_xact_replay_timestamp())} on PostgreSQL.
+     * When empty the replica is assumed to be in sync as long as it answers.
+     */
+    private String lagQuery;
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,58 @@
+package br.com.ada.currencyapi.config;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides whether the replica may serve reads. The lag query runs at most once per check interval,
+ * on whichever thread asks first; every other caller reads the last known answer.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replica;
+    private final ReplicaDataSourceProperties properties;
+    private final AtomicLong nextCheck = new AtomicLong(System.nanoTime());
+    private volatile boolean usable = true;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaDataSourceProperties properties) {
+        this.replica = new JdbcTemplate(replica);
+        this.properties = properties;
+    }
+
+    public boolean isReplicaUsable() {
+        long now = System.nanoTime();
+        long due = nextCheck.get();
+        if (now - due >= 0 && nextCheck.compareAndSet(due, now + properties.getLagCheckInterval().toNanos())) {
+            usable = check();
+        }
+        return usable;
+    }
+
+    private boolean check() {
+        try {
+            if (!StringUtils.hasText(properties.getLagQuery())) {
+                replica.execute("select 1");
+                return true;
+            }
+            BigDecimal lag = replica.queryForObject(properties.getLagQuery(), BigDecimal.class);
+            boolean inSync = Objects.nonNull(lag)
+                    && lag.compareTo(BigDecimal.valueOf(properties.getMaxLag().toMillis(), 3)) <= 0;
+            if (!inSync) {
+                log.warn("Replica lag {}s above tolerance {}, reading from primary", lag, properties.getMaxLag());
+            }
+            return inSync;
+        } catch (Exception e) {
+            log.warn("Replica unavailable, reading from primary: {}", e.getMessage());
+            return false;
+        }
+    }
+}
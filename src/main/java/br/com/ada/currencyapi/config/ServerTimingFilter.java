@@ -0,0 +1,81 @@
+package br.com.ada.currencyapi.config;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import br.com.ada.currencyapi.service.RequestTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Times the phases of the read endpoints ({@code db} for repository lookups including the eager
+ * {@code exchanges} load, {@code sql} for statement execution inside it, {@code upstream} for quote
+ * providers and {@code serialize} for writing the body). Hydration is roughly {@code db - sql}.
+ * <p>
+ * Phases are always collected, which is a few {@link System#nanoTime()} calls per request. Only
+ * sampled requests, or those sending {@link ServerTimingProperties#getRequestHeader()}, get a
+ * {@code Server-Timing} header; their body is buffered so the header can include serialization.
+ * Requests over the slow threshold are logged with the same phases, in the fixed order of
+ * {@link RequestTimings}.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ServerTimingProperties.class)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Set<String> PATHS = Set.of("/currency", "/currency/convert", "/currency/convert/api");
+
+    private final ServerTimingProperties properties;
+
+    public ServerTimingFilter(ServerTimingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        ContentCachingResponseWrapper buffered = reportRequested(request) ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            RequestTimings.clear();
+            long total = timings.finish();
+            if (buffered != null) {
+                buffered.setHeader(SERVER_TIMING, timings.toHeader(total));
+                buffered.copyBodyToResponse();
+            }
+            logIfSlow(request, response, timings, total);
+        }
+    }
+
+    private boolean reportRequested(HttpServletRequest request) {
+        return request.getHeader(properties.getRequestHeader()) != null
+                || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+
+    private void logIfSlow(HttpServletRequest request, HttpServletResponse response, RequestTimings timings, long total) {
+        long threshold = properties.getSlowThreshold().toNanos();
+        if (threshold > 0 && total >= threshold) {
+            log.warn("Slow request method={} path={} query={} status={} total_ms={} {}",
+                    request.getMethod(), request.getRequestURI(), request.getQueryString(), response.getStatus(),
+                    total / 1_000_000, timings.toLog());
+        }
+    }
+}
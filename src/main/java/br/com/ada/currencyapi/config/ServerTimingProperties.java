@@ -0,0 +1,32 @@
+package br.com.ada.currencyapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.timing")
+public class ServerTimingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of requests, between 0 and 1, answered with a {@code Server-Timing} header.
+     */
+    private double sampleRate;
+
+    /**
+     * Request header that asks for a {@code Server-Timing} header regardless of sampling.
+     */
+    private String requestHeader = "X-Server-Timing";
+
+    /**
+     * Requests slower than this are logged with their phases; zero disables the log.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+}
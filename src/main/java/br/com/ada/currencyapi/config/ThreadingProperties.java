@@ -0,0 +1,29 @@
+package br.com.ada.currencyapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.threads")
+public class ThreadingProperties {
+
+    /**
+     * Report virtual threads pinned to their carrier for at least this long. Only used when
+     * {@code spring.threads.virtual.enabled} is set.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    /**
+     * Platform threads of {@code quoteExecutor} and the tasks that may wait for one. Past both, calls to
+     * the quote providers fail fast as unavailable instead of starting more threads. Unused when
+     * {@code spring.threads.virtual.enabled} is set: virtual threads are cheap to park.
+     */
+    private int quotePoolSize = 64;
+    private int quoteQueueCapacity = 256;
+
+}
@@ -0,0 +1,24 @@
+package br.com.ada.currencyapi.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+import br.com.ada.currencyapi.service.RequestTimings;
+
+/**
+ * Reports JDBC statement execution as the {@code sql} phase. Hibernate creates one per session
+ * through {@code hibernate.session.events.auto}, so it only holds the start of the running statement.
+ */
+public class TimingSessionEventListener extends BaseSessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.add("sql", System.nanoTime() - executeStart);
+    }
+}
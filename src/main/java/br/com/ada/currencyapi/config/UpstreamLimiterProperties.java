@@ -0,0 +1,22 @@
+package br.com.ada.currencyapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.client.limiter")
+public class UpstreamLimiterProperties {
+
+    private boolean enabled = true;
+    private double permitsPerSecond = 10;
+    private int burst = 10;
+    private int maxQueue = 100;
+    private Duration interactiveTimeout = Duration.ofSeconds(2);
+    private Duration backgroundTimeout = Duration.ofSeconds(30);
+
+}
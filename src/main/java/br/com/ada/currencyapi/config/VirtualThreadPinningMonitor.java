@@ -0,0 +1,93 @@
+package br.com.ada.currencyapi.config;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts virtual threads that block while pinned to their carrier, in {@code currency.threads.pinned},
+ * and logs where they were pinned. A pinned thread blocks its carrier too, so a steady count here means
+ * the virtual-thread mode is quietly running on {@code availableProcessors} threads; the usual causes
+ * are blocking inside {@code synchronized} and JDBC drivers that lock with monitors. Reads the
+ * {@code jdk.VirtualThreadPinned} JFR event in-process, so it needs no agent or startup flag.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(ThreadingProperties.class)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+
+    private final ThreadingProperties properties;
+    private final Counter pinned;
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(ThreadingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pinned = Counter.builder("currency.threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED).withThreshold(properties.getPinnedThreshold()).withStackTrace();
+        recording.onEvent(PINNED, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (Objects.nonNull(recording)) {
+            recording.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return Objects.nonNull(stream);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        log.warn("Virtual thread {} pinned for {} ms at {}",
+                Objects.isNull(event.getThread()) ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(),
+                pinnedAt(event));
+    }
+
+    /**
+     * The innermost application frame, else the innermost frame.
+     */
+    private static String pinnedAt(RecordedEvent event) {
+        if (Objects.isNull(event.getStackTrace())) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        RecordedFrame frame = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .filter(candidate -> candidate.getMethod().getType().getName().startsWith("br.com.ada."))
+                .findFirst()
+                .orElse(frames.isEmpty() ? null : frames.get(0));
+        return Objects.isNull(frame)
+                ? "unknown"
+                : "%s.%s:%d".formatted(frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber());
+    }
+}
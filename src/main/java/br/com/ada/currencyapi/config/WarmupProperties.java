@@ -0,0 +1,38 @@
+package br.com.ada.currencyapi.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Pairs converted by the synthetic workload, as {@code FROM:TO}.
+     */
+    private List<String> pairs = new ArrayList<>();
+    private int iterations = 200;
+
+    /**
+     * Also warm the upstream path (Feign, TLS, providers) through {@code convertAPI}, at background priority.
+     */
+    private boolean upstream;
+
+    /**
+     * Steady state is reached when the mean latency of the last {@code window} iterations is within
+     * {@code tolerance} of the window before it.
+     */
+    private int window = 20;
+    private double tolerance = 0.1;
+    private Duration timeout = Duration.ofSeconds(60);
+
+}
@@ -1,24 +1,41 @@
 package br.com.ada.currencyapi.controller;
 
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.ada.currencyapi.domain.ConversionAuditResponse;
 import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
 import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
 import br.com.ada.currencyapi.domain.CurrencyRequest;
 import br.com.ada.currencyapi.domain.CurrencyResponse;
+import br.com.ada.currencyapi.domain.PairUsageResponse;
+import br.com.ada.currencyapi.domain.RateUpdateRequest;
 import br.com.ada.currencyapi.exception.CoinNotFoundException;
 import br.com.ada.currencyapi.exception.CurrencyException;
+import br.com.ada.currencyapi.service.ConversionAuditor;
 import br.com.ada.currencyapi.service.CurrencyService;
+import br.com.ada.currencyapi.service.PairUsageStats;
+import br.com.ada.currencyapi.service.RateFeedService;
+import br.com.ada.currencyapi.service.StreamingConversionService;
+import br.com.ada.currencyapi.service.StreamingConversionService.Format;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +47,10 @@ import lombok.extern.slf4j.Slf4j;
 public class CurrencyController {
 
     private final CurrencyService currencyService;
+    private final RateFeedService rateFeedService;
+    private final StreamingConversionService streamingConversionService;
+    private final ConversionAuditor conversionAuditor;
+    private final PairUsageStats pairUsageStats;
 
     @GetMapping
     public ResponseEntity<List<CurrencyResponse>> get() {
@@ -41,12 +62,52 @@ public class CurrencyController {
         return new ResponseEntity<>(currencyService.convert(request), HttpStatus.OK);
     }
 
+    @GetMapping("/convert/api")
+    public ResponseEntity<ConvertCurrencyResponse> convertAPI(ConvertCurrencyRequest request) throws CoinNotFoundException {
+        return new ResponseEntity<>(currencyService.convertAPI(request), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/convert/stream", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> convertStream(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+        Format format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv")) ? Format.CSV : Format.NDJSON;
+        StreamingResponseBody response = output -> streamingConversionService.convert(body, output, format);
+        return ResponseEntity.ok()
+                .contentType(format == Format.CSV ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .body(response);
+    }
+
+    @GetMapping("/audit")
+    public ResponseEntity<List<ConversionAuditResponse>> audit(@RequestParam(name = "from", required = false) String from,
+                                                               @RequestParam(name = "to", required = false) String to,
+                                                               @RequestParam(name = "since", required = false) Instant since,
+                                                               @RequestParam(name = "until", required = false) Instant until,
+                                                               @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return new ResponseEntity<>(conversionAuditor.search(from, to, since, until, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/stats/top")
+    public ResponseEntity<List<PairUsageResponse>> topPairs(@RequestParam(name = "window", defaultValue = "5m") String window,
+                                                            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return new ResponseEntity<>(pairUsageStats.top(DurationStyle.detectAndParse(window), limit), HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<Long> create(@RequestBody @Valid CurrencyRequest request) throws CurrencyException {
         Long id = currencyService.create(request);
         return new ResponseEntity<>(id, HttpStatus.CREATED);
     }
 
+    @PutMapping("/rates")
+    public ResponseEntity<Integer> updateRates(@RequestBody List<RateUpdateRequest> request) throws CurrencyException, CoinNotFoundException {
+        return new ResponseEntity<>(rateFeedService.update(request), HttpStatus.OK);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Integer> deleteAll(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                             @RequestParam(name = "names", required = false) List<String> names) throws CurrencyException, CoinNotFoundException {
+        return new ResponseEntity<>(currencyService.delete(ids, names), HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable("id") Long id) {
         currencyService.delete(id);
@@ -0,0 +1,276 @@
+package br.com.ada.currencyapi.controller;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import br.com.ada.currencyapi.config.GrpcProperties;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.exception.CurrencyException;
+import br.com.ada.currencyapi.exception.UpstreamRateLimitException;
+import br.com.ada.currencyapi.exception.UpstreamUnavailableException;
+import br.com.ada.currencyapi.grpc.BatchConvertReply;
+import br.com.ada.currencyapi.grpc.BatchConvertRequest;
+import br.com.ada.currencyapi.grpc.ConversionError;
+import br.com.ada.currencyapi.grpc.ConvertReply;
+import br.com.ada.currencyapi.grpc.ConvertRequest;
+import br.com.ada.currencyapi.grpc.CurrencyConversionGrpc;
+import br.com.ada.currencyapi.service.CurrencyService;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * gRPC counterpart of the conversion endpoints of {@link CurrencyController}, converting through the
+ * same {@link CurrencyService}. Unary calls run on the gRPC executor; batch and stream conversions run
+ * on {@code quoteExecutor}, at most {@code window} at a time per call.
+ */
+@Slf4j
+@Component
+public class CurrencyGrpcService extends CurrencyConversionGrpc.CurrencyConversionImplBase {
+
+    static final Metadata.Key<String> RETRY_AFTER = Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final String GENERIC_ERROR = "Error while processing your request. Try again later.";
+
+    private final CurrencyService currencyService;
+    private final ExecutorService executor;
+    private final GrpcProperties properties;
+
+    public CurrencyGrpcService(CurrencyService currencyService,
+                               @Qualifier("quoteExecutor") ExecutorService executor,
+                               GrpcProperties properties) {
+        this.currencyService = currencyService;
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void convert(ConvertRequest request, StreamObserver<ConvertReply> responseObserver) {
+        try {
+            responseObserver.onNext(ConvertReply.newBuilder()
+                    .setId(request.getId())
+                    .setAmount(convert(request).toPlainString())
+                    .build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(toStatus(e));
+        }
+    }
+
+    @Override
+    public void batchConvert(BatchConvertRequest request, StreamObserver<BatchConvertReply> responseObserver) {
+        if (request.getRequestsCount() > properties.getMaxBatchSize()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(String.format("At most %d conversions per batch", properties.getMaxBatchSize()))
+                    .asRuntimeException());
+            return;
+        }
+
+        BatchConvertReply.Builder reply = BatchConvertReply.newBuilder();
+        Deque<CompletableFuture<ConvertReply>> inFlight = new ArrayDeque<>();
+        try {
+            for (ConvertRequest conversion : request.getRequestsList()) {
+                inFlight.add(submit(conversion));
+                if (inFlight.size() >= properties.getWindow()) {
+                    reply.addReplies(inFlight.poll().join());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                reply.addReplies(inFlight.poll().join());
+            }
+        } finally {
+            inFlight.forEach(pending -> pending.cancel(true));
+        }
+
+        responseObserver.onNext(reply.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<ConvertRequest> streamConvert(StreamObserver<ConvertReply> responseObserver) {
+        ServerCallStreamObserver<ConvertReply> call = (ServerCallStreamObserver<ConvertReply>) responseObserver;
+        StreamConversion conversion = new StreamConversion(call);
+        call.setOnCancelHandler(conversion::cancel);
+        call.setOnReadyHandler(conversion::requestOwed);
+        call.disableAutoRequest();
+        call.request(properties.getWindow());
+        return conversion;
+    }
+
+    private CompletableFuture<ConvertReply> submit(ConvertRequest request) {
+        try {
+            return CompletableFuture.supplyAsync(() -> reply(request), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(reply(request));
+        }
+    }
+
+    private ConvertReply reply(ConvertRequest request) {
+        ConvertReply.Builder reply = ConvertReply.newBuilder().setId(request.getId());
+        try {
+            reply.setAmount(convert(request).toPlainString());
+        } catch (Exception e) {
+            reply.setError(toError(e));
+        }
+        return reply.build();
+    }
+
+    private BigDecimal convert(ConvertRequest request) {
+        if (request.getFrom().isEmpty() || request.getTo().isEmpty() || request.getAmount().isEmpty()) {
+            throw new IllegalArgumentException("From, to and amount are required");
+        }
+
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(request.getAmount());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid amount: %s", request.getAmount()));
+        }
+
+        ConvertCurrencyRequest conversion = ConvertCurrencyRequest.builder()
+                .from(request.getFrom())
+                .to(request.getTo())
+                .amount(amount)
+                .build();
+
+        return request.getUpstream()
+                ? currencyService.convertAPI(conversion).getAmount()
+                : currencyService.convert(conversion).getAmount();
+    }
+
+    private static RuntimeException toStatus(Exception e) {
+        if (e instanceof UpstreamRateLimitException rateLimit) {
+            Metadata trailers = new Metadata();
+            trailers.put(RETRY_AFTER, String.valueOf(Math.max(1, rateLimit.getRetryAfter().toSeconds())));
+            return Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException(trailers);
+        }
+        ConversionError error = toError(e);
+        Status status = switch (error.getCode()) {
+            case INVALID_ARGUMENT -> Status.INVALID_ARGUMENT;
+            case NOT_FOUND -> Status.NOT_FOUND;
+            case UNAVAILABLE -> Status.UNAVAILABLE;
+            default -> Status.INTERNAL;
+        };
+        return status.withDescription(error.getMessage()).asRuntimeException();
+    }
+
+    private static ConversionError toError(Exception e) {
+        ConversionError.Code code;
+        String message = e.getMessage();
+        if (e instanceof IllegalArgumentException) {
+            code = ConversionError.Code.INVALID_ARGUMENT;
+        } else if (e instanceof CoinNotFoundException) {
+            code = ConversionError.Code.NOT_FOUND;
+        } else if (e instanceof UpstreamRateLimitException) {
+            code = ConversionError.Code.RATE_LIMITED;
+        } else if (e instanceof UpstreamUnavailableException) {
+            code = ConversionError.Code.UNAVAILABLE;
+        } else if (e instanceof CurrencyException) {
+            code = ConversionError.Code.INTERNAL;
+        } else {
+            log.error("gRPC conversion failed", e);
+            code = ConversionError.Code.INTERNAL;
+            message = GENERIC_ERROR;
+        }
+        return ConversionError.newBuilder()
+                .setCode(code)
+                .setMessage(Objects.toString(message, ""))
+                .build();
+    }
+
+    /**
+     * One {@code StreamConvert} call. Each request is converted on the executor and its reply written
+     * as soon as it is ready; only then is the next request asked for, which keeps {@code window}
+     * conversions in flight. A client that reads slower than it writes makes the call not ready: the
+     * requests it is owed are then held back until the on-ready handler fires, so at most
+     * {@code window} replies wait in the transport. The call completes once the client has half-closed
+     * and the last conversion is written.
+     */
+    private final class StreamConversion implements StreamObserver<ConvertRequest> {
+
+        private final ServerCallStreamObserver<ConvertReply> call;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger owed = new AtomicInteger();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile boolean halfClosed;
+
+        private StreamConversion(ServerCallStreamObserver<ConvertReply> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void onNext(ConvertRequest request) {
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> complete(reply(request)));
+            } catch (RejectedExecutionException e) {
+                complete(reply(request));
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            cancel();
+        }
+
+        @Override
+        public void onCompleted() {
+            halfClosed = true;
+            if (inFlight.get() == 0) {
+                finish();
+            }
+        }
+
+        private void cancel() {
+            done.set(true);
+        }
+
+        private void complete(ConvertReply reply) {
+            synchronized (this) {
+                if (!done.get()) {
+                    call.onNext(reply);
+                }
+            }
+            if (inFlight.decrementAndGet() == 0 && halfClosed) {
+                finish();
+            } else if (!done.get()) {
+                owed.incrementAndGet();
+                requestOwed();
+            }
+        }
+
+        private void requestOwed() {
+            while (!done.get() && call.isReady()) {
+                int requests = owed.get();
+                if (requests == 0) {
+                    return;
+                }
+                if (owed.compareAndSet(requests, 0)) {
+                    call.request(requests);
+                    return;
+                }
+            }
+        }
+
+        private void finish() {
+            synchronized (this) {
+                if (done.compareAndSet(false, true)) {
+                    call.onCompleted();
+                }
+            }
+        }
+    }
+}
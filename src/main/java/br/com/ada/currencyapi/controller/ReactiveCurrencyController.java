@@ -0,0 +1,31 @@
+package br.com.ada.currencyapi.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
+import br.com.ada.currencyapi.service.ReactiveCurrencyService;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/reactive/currency")
+public class ReactiveCurrencyController {
+
+    private final ReactiveCurrencyService reactiveCurrencyService;
+
+    @GetMapping("/convert")
+    public Mono<ConvertCurrencyResponse> convert(ConvertCurrencyRequest request) {
+        return reactiveCurrencyService.convert(request);
+    }
+
+    @GetMapping("/convert/api")
+    public Mono<ConvertCurrencyResponse> convertAPI(ConvertCurrencyRequest request) {
+        return reactiveCurrencyService.convertAPI(request);
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.ada.currencyapi.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "conversion_audit", indexes = {
+        @Index(name = "conversion_audit_converted_at", columnList = "converted_at"),
+        @Index(name = "conversion_audit_pair", columnList = "from_currency, to_currency")})
+public class ConversionAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_currency", nullable = false)
+    private String fromCurrency;
+
+    @Column(name = "to_currency", nullable = false)
+    private String toCurrency;
+
+    @Column(precision = 38, scale = 10)
+    private BigDecimal amount;
+
+    @Column(precision = 38, scale = 10)
+    private BigDecimal rate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Source source;
+
+    @Column(name = "converted_at", nullable = false)
+    private Instant convertedAt;
+
+    public enum Source {
+        LOCAL,
+        UPSTREAM,
+        /**
+         * A row of a file converted against the local rates.
+         */
+        STREAM
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.ada.currencyapi.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionAuditResponse {
+
+    private Long id;
+    private String from;
+    private String to;
+    private BigDecimal amount;
+    private BigDecimal rate;
+    private String source;
+    private Instant convertedAt;
+
+}
@@ -0,0 +1,14 @@
+package br.com.ada.currencyapi.domain;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ConvertedRow(
+        String from,
+        String to,
+        BigDecimal amount,
+        BigDecimal converted,
+        String error
+) {}
@@ -4,6 +4,11 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Map;
 
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,6 +22,7 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(name = "currency", indexes = @Index(name = "currency_name", columnList = "name"))
 public class Currency implements Serializable {
 
     @Id
@@ -26,9 +32,23 @@ public class Currency implements Serializable {
     private String description;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "exchanges",
             joinColumns = {@JoinColumn(name = "currency_id", referencedColumnName = "id")})
     @MapKeyColumn(name = "currency_name")
     private Map<String, BigDecimal> exchanges;
 
+    /**
+     * The same rates as {@link #exchanges}, in one JSON column ({@code jsonb} on PostgreSQL, {@code json}
+     * on H2) so a currency can be read in a single-row select. Written only when
+     * {@code currency.exchanges.storage} is {@code dual} or {@code compact}.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "exchanges_compact")
+    private Map<String, BigDecimal> exchangesCompact;
+
+    public Currency(Long id, String name, String description, Map<String, BigDecimal> exchanges) {
+        this(id, name, description, exchanges, null);
+    }
+
 }
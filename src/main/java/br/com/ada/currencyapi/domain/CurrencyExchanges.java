@@ -0,0 +1,12 @@
+package br.com.ada.currencyapi.domain;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * A currency read through its compact column only; {@code exchanges} is null until backfilled.
+ */
+public record CurrencyExchanges(
+        Long id,
+        Map<String, BigDecimal> exchanges
+) {}
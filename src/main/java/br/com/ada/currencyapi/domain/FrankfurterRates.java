@@ -0,0 +1,11 @@
+package br.com.ada.currencyapi.domain;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record FrankfurterRates(
+        BigDecimal amount,
+        String base,
+        String date,
+        Map<String, BigDecimal> rates
+) {}
@@ -0,0 +1,23 @@
+package br.com.ada.currencyapi.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PairUsageResponse {
+
+    private String from;
+    private String to;
+    private long count;
+    private double perSecond;
+    private double p50Millis;
+    private double p99Millis;
+
+}
@@ -0,0 +1,59 @@
+package br.com.ada.currencyapi.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Upstream conversions per second of one pair on one node, as that node last reported them, so the
+ * node leading the pair's shard can plan its refreshes for the demand of the whole cluster.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(QuoteDemand.Key.class)
+@Table(name = "quote_demand")
+public class QuoteDemand {
+
+    /**
+     * {@code USD-BRL}.
+     */
+    @Id
+    @Column(length = 32)
+    private String pair;
+
+    @Id
+    @Column(length = 128)
+    private String node;
+
+    @Column(name = "per_second", nullable = false)
+    private Double perSecond;
+
+    @Column(name = "reported_at", nullable = false)
+    private Instant reportedAt;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+
+        private String pair;
+        private String node;
+    }
+}
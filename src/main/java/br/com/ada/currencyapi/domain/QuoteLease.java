@@ -0,0 +1,39 @@
+package br.com.ada.currencyapi.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Leadership of one shard of the refreshed pairs: the node in {@code owner} refreshes them until
+ * {@code expiresAt}. {@code token} grows every time the shard changes hands.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "quote_lease")
+public class QuoteLease {
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Long token;
+}
@@ -0,0 +1,14 @@
+package br.com.ada.currencyapi.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of looking up one rate: the currency's id, always set when the currency exists, and the
+ * rate, null when it has none for the requested pair.
+ */
+public interface RateLookup {
+
+    Long getCurrencyId();
+
+    BigDecimal getRate();
+}
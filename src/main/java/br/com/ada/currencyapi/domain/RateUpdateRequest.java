@@ -0,0 +1,23 @@
+package br.com.ada.currencyapi.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateUpdateRequest implements Serializable {
+
+    private String from;
+    private String to;
+    private BigDecimal rate;
+
+}
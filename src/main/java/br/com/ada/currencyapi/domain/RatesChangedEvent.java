@@ -0,0 +1,11 @@
+package br.com.ada.currencyapi.domain;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Published once per committed rate feed, carrying every {@code from -> to -> rate}
+ * that changed, so in-memory rate holders can patch themselves in a single pass.
+ */
+public record RatesChangedEvent(Map<String, Map<String, BigDecimal>> rates) {
+}
@@ -0,0 +1,62 @@
+package br.com.ada.currencyapi.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Last quote of a pair fetched by whichever node leads its shard, shared by every node.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "upstream_quote")
+public class UpstreamQuote {
+
+    /**
+     * {@code USD-BRL}.
+     */
+    @Id
+    @Column(length = 32)
+    private String pair;
+
+    @Column(name = "from_currency", nullable = false)
+    private String fromCurrency;
+
+    @Column(name = "to_currency", nullable = false)
+    private String toCurrency;
+
+    @Column(precision = 38, scale = 10, nullable = false)
+    private BigDecimal rate;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    @Column(name = "fetched_by", nullable = false, length = 128)
+    private String fetchedBy;
+
+    /**
+     * Variance per second of the pair's relative moves, as estimated by the node that fetched it.
+     */
+    @Column(name = "rate_variance")
+    private Double variance;
+
+    /**
+     * When the fetching node planned the next refresh; until then, give or take a lease, the quote is
+     * as fresh as the refresh policy wants it.
+     */
+    @Column(name = "next_refresh_at")
+    private Instant nextRefreshAt;
+}
@@ -0,0 +1,17 @@
+package br.com.ada.currencyapi.exception;
+
+import java.time.Duration;
+
+public class UpstreamRateLimitException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public UpstreamRateLimitException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
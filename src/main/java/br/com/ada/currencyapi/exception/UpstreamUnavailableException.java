@@ -0,0 +1,8 @@
+package br.com.ada.currencyapi.exception;
+
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.ada.currencyapi.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import br.com.ada.currencyapi.domain.ConversionAudit;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Batch writes to the {@code conversion_audit} table of {@link ConversionAudit}, one JDBC batch per
+ * call instead of one persist and identity round-trip per record.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConversionAuditJdbcRepository {
+
+    private static final String INSERT_AUDIT = """
+            insert into conversion_audit (from_currency, to_currency, amount, rate, source, converted_at)
+            values (:from, :to, :amount, :rate, :source, :convertedAt)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<ConversionAudit> audits) {
+        if (audits.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUDIT, audits.stream()
+                .map(ConversionAuditJdbcRepository::toParams)
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    private static SqlParameterSource toParams(ConversionAudit audit) {
+        return new MapSqlParameterSource()
+                .addValue("from", audit.getFromCurrency())
+                .addValue("to", audit.getToCurrency())
+                .addValue("amount", audit.getAmount())
+                .addValue("rate", audit.getRate())
+                .addValue("source", audit.getSource().name())
+                .addValue("convertedAt", Timestamp.from(audit.getConvertedAt()));
+    }
+}
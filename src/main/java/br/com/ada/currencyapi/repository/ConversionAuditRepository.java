@@ -0,0 +1,23 @@
+package br.com.ada.currencyapi.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.ada.currencyapi.domain.ConversionAudit;
+
+public interface ConversionAuditRepository extends JpaRepository<ConversionAudit, Long> {
+
+    @Query("""
+            select a from ConversionAudit a
+            where (:from is null or a.fromCurrency = :from)
+              and (:to is null or a.toCurrency = :to)
+              and a.convertedAt >= :since and a.convertedAt < :until
+            order by a.convertedAt desc, a.id desc""")
+    List<ConversionAudit> search(@Param("from") String from, @Param("to") String to,
+                                 @Param("since") Instant since, @Param("until") Instant until, Pageable page);
+}
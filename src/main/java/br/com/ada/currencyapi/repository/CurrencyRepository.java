@@ -1,11 +1,66 @@
 package br.com.ada.currencyapi.repository;
 
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.domain.CurrencyExchanges;
+import br.com.ada.currencyapi.domain.RateLookup;
 
 public interface CurrencyRepository extends JpaRepository<Currency, Long> {
 
     Currency findByName(String name);
+
+    boolean existsByName(String name);
+
+    /**
+     * The one rate a conversion needs, in a single round-trip whatever the number of exchanges of the
+     * currency: no row means an unknown currency, a null rate an unknown pair. Reads one
+     * {@code exchanges} row through its {@code (currency_id, currency_name)} primary key.
+     */
+    @Query(value = """
+            select c.id as currencyId, e.exchanges as rate
+              from currency c
+              left join exchanges e on e.currency_id = c.id and e.currency_name = :to
+             where c.name = :from
+             fetch first 1 rows only""", nativeQuery = true)
+    RateLookup findRate(@Param("from") String from, @Param("to") String to);
+
+    /**
+     * Single-row read of the compact column, without touching the {@code exchanges} table.
+     */
+    @Query("select new br.com.ada.currencyapi.domain.CurrencyExchanges(c.id, c.exchangesCompact) from Currency c where c.name = :name")
+    CurrencyExchanges findCompactByName(@Param("name") String name);
+
+    /**
+     * Currencies whose compact column was never written. Depending on the database a null map is
+     * stored as SQL {@code NULL} or as the JSON literal {@code null}, so both count as missing.
+     */
+    @Query(value = """
+            select c.id from currency c
+             where c.exchanges_compact is null or cast(c.exchanges_compact as varchar) = 'null'
+             order by c.id""", nativeQuery = true)
+    List<Long> findIdsWithoutCompact(Pageable page);
+
+    @Query("select c.id from Currency c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Removes the {@code exchanges} rows of the given currencies without loading them. Run it before
+     * {@link #deleteAllByIdIn(Collection)}, in the same transaction.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from exchanges where currency_id in (:ids)", nativeQuery = true)
+    int deleteExchangesByCurrencyIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Currency c where c.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,140 @@
+package br.com.ada.currencyapi.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Plain JDBC access to the {@code exchanges} collection table of {@link br.com.ada.currencyapi.domain.Currency},
+ * used where going through the entity would mean hydrating whole currencies.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExchangeJdbcRepository {
+
+    private static final String UPDATE_RATE =
+            "update exchanges set exchanges = :rate where currency_id = :currencyId and currency_name = :currencyName";
+
+    private static final String INSERT_RATE =
+            "insert into exchanges (currency_id, currency_name, exchanges) values (:currencyId, :currencyName, :rate)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Map<String, Long> findIdsByNames(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query("select id, name from currency where name in (:names)",
+                new MapSqlParameterSource("names", names),
+                rs -> {
+                    ids.putIfAbsent(rs.getString("name"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Every {@code from -> to -> rate} in one statement, so the result is a consistent snapshot of the table.
+     */
+    public Map<String, Map<String, BigDecimal>> findAllRates() {
+        Map<String, Map<String, BigDecimal>> rates = new HashMap<>();
+        jdbcTemplate.query("select c.name, e.currency_name, e.exchanges from currency c join exchanges e on e.currency_id = c.id",
+                rs -> {
+                    rates.computeIfAbsent(rs.getString(1), from -> new HashMap<>()).putIfAbsent(rs.getString(2), rs.getBigDecimal(3));
+                });
+        return rates;
+    }
+
+    /**
+     * Rates of the given {@code from -> to} pairs in one statement. Every existing {@code from}
+     * currency is present, with an empty map when none of the asked pairs has a rate; unknown
+     * currencies are absent. The result is bounded by the pairs asked, not by the catalogue.
+     */
+    public Map<String, Map<String, BigDecimal>> findRates(Map<String, ? extends Collection<String>> pairs) {
+        Map<String, Map<String, BigDecimal>> rates = new HashMap<>();
+        if (pairs.isEmpty()) {
+            return rates;
+        }
+        List<Object[]> tuples = new ArrayList<>();
+        pairs.forEach((from, tos) -> tos.forEach(to -> tuples.add(new Object[] {from, to})));
+
+        jdbcTemplate.query("""
+                        select c.name, e.currency_name, e.exchanges from currency c
+                          left join exchanges e on e.currency_id = c.id and (c.name, e.currency_name) in (:pairs)
+                         where c.name in (:froms)""",
+                new MapSqlParameterSource()
+                        .addValue("pairs", tuples)
+                        .addValue("froms", pairs.keySet()),
+                rs -> {
+                    Map<String, BigDecimal> exchanges = rates.computeIfAbsent(rs.getString(1), from -> new HashMap<>());
+                    if (Objects.nonNull(rs.getString(2))) {
+                        exchanges.putIfAbsent(rs.getString(2), rs.getBigDecimal(3));
+                    }
+                });
+        return rates;
+    }
+
+    /**
+     * All the rates of the given currencies, read from the table rather than from entities a long-lived
+     * persistence context may hold stale. Currencies without rates are absent.
+     */
+    public Map<Long, Map<String, BigDecimal>> findRatesByCurrencyIds(Collection<Long> currencyIds) {
+        Map<Long, Map<String, BigDecimal>> rates = new HashMap<>();
+        if (currencyIds.isEmpty()) {
+            return rates;
+        }
+        jdbcTemplate.query("select currency_id, currency_name, exchanges from exchanges where currency_id in (:ids)",
+                new MapSqlParameterSource("ids", currencyIds),
+                rs -> {
+                    rates.computeIfAbsent(rs.getLong(1), id -> new HashMap<>()).put(rs.getString(2), rs.getBigDecimal(3));
+                });
+        return rates;
+    }
+
+    /**
+     * Writes the given rates as two JDBC batches: an update for every row, then an insert for the
+     * rows the update did not find. Callers are expected to pass rows sorted by
+     * {@code (currency_id, currency_name)} so concurrent feeds lock rows in the same order. Two feeds
+     * adding the same pair can both miss it in the update, so the second insert may throw a
+     * {@link org.springframework.dao.DuplicateKeyException}; the caller retries the chunk.
+     */
+    public void upsertRates(List<ExchangeRate> rates) {
+        SqlParameterSource[] params = rates.stream()
+                .map(ExchangeJdbcRepository::toParams)
+                .toArray(SqlParameterSource[]::new);
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_RATE, params);
+
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(params[i]);
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RATE, inserts.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private static SqlParameterSource toParams(ExchangeRate rate) {
+        return new MapSqlParameterSource()
+                .addValue("currencyId", rate.currencyId())
+                .addValue("currencyName", rate.currencyName())
+                .addValue("rate", rate.rate());
+    }
+
+    public record ExchangeRate(Long currencyId, String currencyName, BigDecimal rate) {
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.ada.currencyapi.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import br.com.ada.currencyapi.domain.QuoteDemand;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Access to the {@code quote_demand} table of {@link QuoteDemand}. Each node only writes its own
+ * rows; reports older than the caller's cut-off, such as those of a node that died, are left out of
+ * the totals.
+ */
+@Repository
+@RequiredArgsConstructor
+public class QuoteDemandJdbcRepository {
+
+    private static final String UPDATE_DEMAND =
+            "update quote_demand set per_second = :perSecond, reported_at = :now where pair = :pair and node = :node";
+
+    private static final String INSERT_DEMAND =
+            "insert into quote_demand (pair, node, per_second, reported_at) values (:pair, :node, :perSecond, :now)";
+
+    private static final String SUM_DEMAND = """
+            select pair, sum(per_second) as per_second from quote_demand
+             where pair in (:pairs) and reported_at > :since
+             group by pair""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores {@code node}'s upstream conversions per second of each pair in {@code demand}.
+     */
+    public void report(String node, Map<String, Double> demand, Instant now) {
+        for (Map.Entry<String, Double> entry : demand.entrySet()) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("pair", entry.getKey())
+                    .addValue("node", node)
+                    .addValue("perSecond", entry.getValue())
+                    .addValue("now", QuoteLeaseJdbcRepository.timestamp(now));
+            if (jdbcTemplate.update(UPDATE_DEMAND, params) == 1) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update(INSERT_DEMAND, params);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(UPDATE_DEMAND, params);
+            }
+        }
+    }
+
+    /**
+     * Upstream conversions per second of each of {@code pairs} summed over the nodes that reported
+     * after {@code since}; pairs nobody reported are absent.
+     */
+    public Map<String, Double> findTotals(Collection<String> pairs, Instant since) {
+        Map<String, Double> totals = new HashMap<>();
+        if (pairs.isEmpty()) {
+            return totals;
+        }
+        jdbcTemplate.query(SUM_DEMAND, new MapSqlParameterSource()
+                        .addValue("pairs", pairs)
+                        .addValue("since", QuoteLeaseJdbcRepository.timestamp(since)),
+                rs -> {
+                    totals.put(rs.getString("pair"), rs.getDouble("per_second"));
+                });
+        return totals;
+    }
+
+    /**
+     * Drops the reports of {@code node}, which stopped converting.
+     */
+    public void delete(String node) {
+        jdbcTemplate.update("delete from quote_demand where node = :node", new MapSqlParameterSource("node", node));
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.ada.currencyapi.repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import br.com.ada.currencyapi.domain.QuoteLease;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Compare-and-set access to the {@code quote_lease} table of {@link QuoteLease}. Every change is a
+ * single conditional statement, so two nodes racing for a shard cannot both win it. Times come from
+ * the callers' clocks, which must agree to well within a lease, truncated to the microseconds the
+ * columns keep so that a lease ends exactly at its stored {@code expires_at}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class QuoteLeaseJdbcRepository {
+
+    private static final String TAKE_OR_RENEW = """
+            update quote_lease
+               set owner = :owner,
+                   expires_at = :expiresAt,
+                   token = case when owner = :owner then token else token + 1 end
+             where shard = :shard and (owner = :owner or expires_at <= :now)""";
+
+    private static final String INSERT_LEASE =
+            "insert into quote_lease (shard, owner, expires_at, token) values (:shard, :owner, :expiresAt, 1)";
+
+    private static final String RELEASE =
+            "update quote_lease set expires_at = :now where shard = :shard and owner = :owner and expires_at > :now";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Renews the lease of {@code shard} if {@code owner} holds it, or takes it if nobody holds it or
+     * its lease ran out. Returns whether {@code owner} holds it until {@code now + lease}.
+     */
+    public boolean tryAcquire(int shard, String owner, Instant now, Duration lease) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("shard", shard)
+                .addValue("owner", owner)
+                .addValue("now", timestamp(now))
+                .addValue("expiresAt", timestamp(now.plus(lease)));
+
+        if (jdbcTemplate.update(TAKE_OR_RENEW, params) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_LEASE, params) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Ends the lease of {@code shard} now, if {@code owner} still holds it, so another node can take
+     * it on its next attempt instead of waiting for it to run out.
+     */
+    public void release(int shard, String owner, Instant now) {
+        jdbcTemplate.update(RELEASE, new MapSqlParameterSource()
+                .addValue("shard", shard)
+                .addValue("owner", owner)
+                .addValue("now", timestamp(now)));
+    }
+
+    /**
+     * Holder of every shard whose lease runs past {@code now}.
+     */
+    public Map<Integer, String> findOwners(Instant now) {
+        Map<Integer, String> owners = new HashMap<>();
+        jdbcTemplate.query("select shard, owner from quote_lease where expires_at > :now",
+                new MapSqlParameterSource("now", timestamp(now)),
+                rs -> {
+                    owners.put(rs.getInt("shard"), rs.getString("owner"));
+                });
+        return owners;
+    }
+
+    /**
+     * {@code instant} as stored in a {@code timestamp(6)} column; comparing a nanosecond parameter
+     * with a rounded column would move lease boundaries by up to a microsecond.
+     */
+    static Timestamp timestamp(Instant instant) {
+        return Timestamp.from(instant.truncatedTo(ChronoUnit.MICROS));
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.ada.currencyapi.repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import br.com.ada.currencyapi.domain.UpstreamQuote;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Access to the {@code upstream_quote} table of {@link UpstreamQuote}. Writes are fenced by the
+ * {@code quote_lease} of the pair's shard: a node whose lease ran out, and which may not know it yet,
+ * writes nothing.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UpstreamQuoteJdbcRepository {
+
+    private static final String HOLDS_LEASE =
+            "select 1 from quote_lease l where l.shard = :shard and l.owner = :owner and l.expires_at > :now";
+
+    private static final String UPDATE_QUOTE = """
+            update upstream_quote
+               set rate = :rate, fetched_at = :fetchedAt, fetched_by = :owner,
+                   rate_variance = :variance, next_refresh_at = :nextRefreshAt
+             where pair = :pair and exists (""" + HOLDS_LEASE + ")";
+
+    private static final String INSERT_QUOTE = """
+            insert into upstream_quote (pair, from_currency, to_currency, rate, fetched_at, fetched_by, rate_variance, next_refresh_at)
+            select :pair, :from, :to, :rate, :fetchedAt, :owner, :variance, :nextRefreshAt from quote_lease l
+             where l.shard = :shard and l.owner = :owner and l.expires_at > :now""";
+
+    private static final String SELECT_QUOTE =
+            "select pair, from_currency, to_currency, rate, fetched_at, fetched_by, rate_variance, next_refresh_at from upstream_quote";
+
+    private static final RowMapper<UpstreamQuote> QUOTE_MAPPER = (rs, rowNum) -> {
+        Timestamp nextRefreshAt = rs.getTimestamp("next_refresh_at");
+        return UpstreamQuote.builder()
+                .pair(rs.getString("pair"))
+                .fromCurrency(rs.getString("from_currency"))
+                .toCurrency(rs.getString("to_currency"))
+                .rate(rs.getBigDecimal("rate"))
+                .fetchedAt(rs.getTimestamp("fetched_at").toInstant())
+                .fetchedBy(rs.getString("fetched_by"))
+                .variance(rs.getObject("rate_variance", Double.class))
+                .nextRefreshAt(Objects.isNull(nextRefreshAt) ? null : nextRefreshAt.toInstant())
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores the quote if its {@code fetchedBy} node holds the lease of {@code shard} at its
+     * {@code fetchedAt}, and returns whether it did.
+     */
+    public boolean write(int shard, UpstreamQuote quote) {
+        Timestamp now = QuoteLeaseJdbcRepository.timestamp(quote.getFetchedAt());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("shard", shard)
+                .addValue("owner", quote.getFetchedBy())
+                .addValue("pair", pair(quote.getFromCurrency(), quote.getToCurrency()))
+                .addValue("from", quote.getFromCurrency())
+                .addValue("to", quote.getToCurrency())
+                .addValue("rate", quote.getRate())
+                .addValue("fetchedAt", now)
+                .addValue("variance", quote.getVariance())
+                .addValue("nextRefreshAt", Objects.isNull(quote.getNextRefreshAt()) ? null : QuoteLeaseJdbcRepository.timestamp(quote.getNextRefreshAt()))
+                .addValue("now", now);
+
+        if (jdbcTemplate.update(UPDATE_QUOTE, params) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_QUOTE, params) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public Optional<UpstreamQuote> find(String from, String to) {
+        List<UpstreamQuote> quotes = jdbcTemplate.query(SELECT_QUOTE + " where pair = :pair",
+                new MapSqlParameterSource("pair", pair(from, to)), QUOTE_MAPPER);
+        return quotes.stream().findFirst();
+    }
+
+    /**
+     * The last quote of each of {@code pairs}, by pair; pairs never fetched are absent.
+     */
+    public Map<String, UpstreamQuote> findAll(Collection<String> pairs) {
+        Map<String, UpstreamQuote> quotes = new HashMap<>();
+        if (pairs.isEmpty()) {
+            return quotes;
+        }
+        jdbcTemplate.query(SELECT_QUOTE + " where pair in (:pairs)", new MapSqlParameterSource("pairs", pairs), QUOTE_MAPPER)
+                .forEach(quote -> quotes.put(quote.getPair(), quote));
+        return quotes;
+    }
+
+    public static String pair(String from, String to) {
+        return from + "-" + to;
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import lombok.RequiredArgsConstructor;
+
+@Order(1)
+@Component
+@RequiredArgsConstructor
+public class AwesomeApiQuoteProvider implements QuoteProvider {
+
+    private final CurrencyClient currencyClient;
+    private final QuoteVolatility quoteVolatility;
+
+    @Override
+    public String name() {
+        return "awesomeapi";
+    }
+
+    @Override
+    public BigDecimal getRate(String from, String to) throws CoinNotFoundException {
+        Map<String, CurrencyQuote> quotes = currencyClient.getCurrencyQuote("%s-%s".formatted(from, to));
+        CurrencyQuote quote = Objects.isNull(quotes) ? null : quotes.get(from + to);
+
+        if (Objects.isNull(quote) || Objects.isNull(quote.low())) {
+            throw new CoinNotFoundException(String.format("Exchange %s not found for %s", to, from));
+        }
+
+        quoteVolatility.observe(from, to, quote);
+        return quote.low();
+    }
+}
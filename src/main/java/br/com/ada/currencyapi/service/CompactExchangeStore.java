@@ -0,0 +1,112 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.ada.currencyapi.config.ExchangeStorageProperties;
+import br.com.ada.currencyapi.config.ExchangeStorageProperties.Storage;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@link Currency#getExchangesCompact()} in step with the {@code exchanges} table, which stays
+ * the source of truth for the JDBC paths. Migration is {@code collection -> dual} (with backfill
+ * enabled) {@code -> compact}; going back only needs the storage setting, since the table is never
+ * left behind. The backfill runs before {@link ConversionWarmup}, so readiness waits for it.
+ */
+@Slf4j
+@Order(0)
+@Component
+@EnableConfigurationProperties(ExchangeStorageProperties.class)
+public class CompactExchangeStore implements ApplicationRunner {
+
+    private final ExchangeStorageProperties properties;
+    private final CurrencyRepository currencyRepository;
+    private final ExchangeJdbcRepository exchangeJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CompactExchangeStore(ExchangeStorageProperties properties,
+                                CurrencyRepository currencyRepository,
+                                ExchangeJdbcRepository exchangeJdbcRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.currencyRepository = currencyRepository;
+        this.exchangeJdbcRepository = exchangeJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean readsCompact() {
+        return properties.getStorage() == Storage.COMPACT;
+    }
+
+    public boolean writesCompact() {
+        return properties.getStorage() != Storage.COLLECTION;
+    }
+
+    /**
+     * The value to store in the compact column for a currency with these rates, or null when it is not written.
+     */
+    public Map<String, BigDecimal> forWrite(Map<String, BigDecimal> exchanges) {
+        if (!writesCompact()) {
+            return null;
+        }
+        return Objects.isNull(exchanges) ? new TreeMap<>() : new TreeMap<>(exchanges);
+    }
+
+    /**
+     * Rewrites the compact column of the given currencies from their collection rows. Runs in the
+     * caller's transaction, after it changed the {@code exchanges} table. The rows are read with JDBC:
+     * with open-in-view, one persistence context spans every chunk of a rate feed, so the entities'
+     * {@code exchanges} still hold what the first chunk loaded.
+     */
+    public void refresh(Collection<Long> currencyIds) {
+        if (!writesCompact() || currencyIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<String, BigDecimal>> rates = exchangeJdbcRepository.findRatesByCurrencyIds(currencyIds);
+        currencyRepository.findAllById(currencyIds)
+                .forEach(currency -> currency.setExchangesCompact(forWrite(rates.get(currency.getId()))));
+    }
+
+    /**
+     * Fills the compact column of every currency that has none, one transaction per batch.
+     */
+    public int backfill() {
+        int filled = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = currencyRepository.findIdsWithoutCompact(PageRequest.of(0, properties.getBackfill().getBatchSize()));
+                refresh(ids);
+                return ids.size();
+            });
+            if (Objects.isNull(batch) || batch == 0) {
+                return filled;
+            }
+            filled += batch;
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (writesCompact() && properties.getBackfill().isEnabled()) {
+            long start = System.nanoTime();
+            int filled = backfill();
+            log.info("Backfilled the compact exchanges of {} currencies in {}ms", filled, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
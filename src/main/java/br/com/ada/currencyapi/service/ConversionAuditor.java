@@ -0,0 +1,199 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.ada.currencyapi.config.AuditProperties;
+import br.com.ada.currencyapi.config.AuditProperties.Overflow;
+import br.com.ada.currencyapi.domain.ConversionAudit;
+import br.com.ada.currencyapi.domain.ConversionAudit.Source;
+import br.com.ada.currencyapi.domain.ConversionAuditResponse;
+import br.com.ada.currencyapi.repository.ConversionAuditJdbcRepository;
+import br.com.ada.currencyapi.repository.ConversionAuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compliance trail of conversions. Request threads publish into a {@link RingBuffer} and return; a
+ * single drainer thread batch-inserts what it finds, sleeping {@code flush-interval} whenever less
+ * than a batch is waiting. When the buffer is full the configured {@link Overflow} policy decides
+ * between dropping the record and writing it from the caller, in a transaction of its own:
+ * conversions run read-only, possibly on the replica, so the caller's own transaction cannot take the
+ * insert, which holds a second connection while it runs. Stopping the context drains the buffer.
+ * Streamed files bypass the buffer: each chunk writes its rows from its own thread as one batch, so a
+ * large upload neither floods the buffer nor loses rows to the overflow policy.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(AuditProperties.class)
+public class ConversionAuditor implements SmartLifecycle {
+
+    private final AuditProperties properties;
+    private final ConversionAuditJdbcRepository auditJdbcRepository;
+    private final ConversionAuditRepository auditRepository;
+    private final RingBuffer<ConversionAudit> buffer;
+    private final TransactionTemplate callerRuns;
+    private final Counter written;
+    private final Counter dropped;
+    private volatile Thread drainer;
+    private volatile boolean running;
+
+    public ConversionAuditor(AuditProperties properties,
+                             ConversionAuditJdbcRepository auditJdbcRepository,
+                             ConversionAuditRepository auditRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.auditJdbcRepository = auditJdbcRepository;
+        this.auditRepository = auditRepository;
+        this.buffer = new RingBuffer<>(properties.getCapacity());
+        this.callerRuns = new TransactionTemplate(transactionManager);
+        this.callerRuns.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.written = Counter.builder("currency.audit.written")
+                .description("Conversion audit records written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("currency.audit.dropped")
+                .description("Conversion audit records dropped because the buffer was full or the write failed")
+                .register(meterRegistry);
+        Gauge.builder("currency.audit.buffer.size", buffer, RingBuffer::size)
+                .description("Conversion audit records waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void record(String from, String to, BigDecimal amount, BigDecimal rate, Source source) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        ConversionAudit audit = ConversionAudit.builder()
+                .fromCurrency(from)
+                .toCurrency(to)
+                .amount(amount)
+                .rate(rate)
+                .source(source)
+                .convertedAt(Instant.now())
+                .build();
+
+        if (buffer.offer(audit)) {
+            return;
+        }
+        if (properties.getOverflow() == Overflow.CALLER_RUNS) {
+            callerRuns.executeWithoutResult(status -> write(List.of(audit)));
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes the records of one streamed chunk from the calling thread, as one batch.
+     */
+    public void recordAll(List<ConversionAudit> audits) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        write(audits);
+    }
+
+    public List<ConversionAuditResponse> search(String from, String to, Instant since, Instant until, int limit) {
+        return auditRepository.search(from, to,
+                        since != null ? since : Instant.EPOCH,
+                        until != null ? until : Instant.now().plusSeconds(1),
+                        PageRequest.of(0, Math.max(1, Math.min(limit, 1000))))
+                .stream()
+                .map(audit -> ConversionAuditResponse.builder()
+                        .id(audit.getId())
+                        .from(audit.getFromCurrency())
+                        .to(audit.getToCurrency())
+                        .amount(audit.getAmount())
+                        .rate(audit.getRate())
+                        .source(audit.getSource().name())
+                        .convertedAt(audit.getConvertedAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Writes everything published so far from the calling thread, after any batch the drainer is
+     * writing. Consumers share a lock; producers never take it.
+     */
+    public void flush() {
+        List<ConversionAudit> batch = new ArrayList<>(properties.getBatchSize());
+        synchronized (buffer) {
+            while (buffer.drainTo(batch, properties.getBatchSize()) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        drainer = new Thread(this::drain, "audit-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        List<ConversionAudit> batch = new ArrayList<>(properties.getBatchSize());
+        long flushInterval = properties.getFlushInterval().toNanos();
+        while (running) {
+            int drained;
+            synchronized (buffer) {
+                drained = buffer.drainTo(batch, properties.getBatchSize());
+                write(batch);
+            }
+            batch.clear();
+            if (drained < properties.getBatchSize()) {
+                LockSupport.parkNanos(flushInterval);
+            }
+        }
+    }
+
+    private void write(List<ConversionAudit> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            auditJdbcRepository.insertAll(batch);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            dropped.increment(batch.size());
+            log.error("Could not write {} conversion audit records: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.ada.currencyapi.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Who a conversion is for. Conversions are for a {@link #CLIENT} unless made inside
+ * {@link #warmup(Supplier)}, which start-up warm-up uses so its synthetic traffic is neither audited
+ * nor counted as pair demand.
+ */
+public enum ConversionOrigin {
+
+    CLIENT,
+    WARMUP;
+
+    private static final ThreadLocal<ConversionOrigin> CURRENT = ThreadLocal.withInitial(() -> CLIENT);
+
+    public static ConversionOrigin current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T with(ConversionOrigin origin, Supplier<T> call) {
+        ConversionOrigin previous = CURRENT.get();
+        CURRENT.set(origin);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T warmup(Supplier<T> call) {
+        return with(WARMUP, call);
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import br.com.ada.currencyapi.config.WarmupProperties;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs before the application reports readiness: Boot only publishes {@code ACCEPTING_TRAFFIC} once
+ * every {@link ApplicationRunner} has returned, so probes keep the instance out of rotation until the
+ * catalogue is loaded, the pool is open and the conversion path has been exercised. Warm-up
+ * conversions run as {@link ConversionOrigin#WARMUP}, so they are not audited nor counted as demand.
+ * Failures are logged and never stop the application from starting.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+public class ConversionWarmup implements ApplicationRunner {
+
+    private final WarmupProperties properties;
+    private final CurrencyService currencyService;
+    private final ExchangeJdbcRepository exchangeJdbcRepository;
+    private final DataSource dataSource;
+    private final Timer duration;
+    private final AtomicInteger steadyState = new AtomicInteger();
+    private final AtomicInteger iterations = new AtomicInteger();
+
+    public ConversionWarmup(WarmupProperties properties,
+                            CurrencyService currencyService,
+                            ExchangeJdbcRepository exchangeJdbcRepository,
+                            DataSource dataSource,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.currencyService = currencyService;
+        this.exchangeJdbcRepository = exchangeJdbcRepository;
+        this.dataSource = dataSource;
+        this.duration = Timer.builder("currency.warmup.duration")
+                .description("Time spent warming up before reporting readiness")
+                .register(meterRegistry);
+        Gauge.builder("currency.warmup.steady.state", steadyState, AtomicInteger::get)
+                .description("1 once warm-up latency stopped improving, 0 otherwise")
+                .register(meterRegistry);
+        Gauge.builder("currency.warmup.iterations", iterations, AtomicInteger::get)
+                .description("Warm-up iterations run before steady state or the iteration limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        openPool();
+        preloadCatalogue();
+        runWorkload(start + properties.getTimeout().toNanos());
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+
+        log.info("Warm-up finished in {}ms after {} iterations, steady state {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), iterations.get(), steadyState.get() == 1 ? "reached" : "not reached");
+    }
+
+    private void openPool() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.isValid(1);
+        } catch (Exception e) {
+            log.warn("Warm-up could not open a database connection: {}", e.getMessage());
+        }
+    }
+
+    private void preloadCatalogue() {
+        try {
+            currencyService.get();
+            exchangeJdbcRepository.findAllRates();
+        } catch (Exception e) {
+            log.warn("Warm-up could not preload the currency catalogue: {}", e.getMessage());
+        }
+    }
+
+    private void runWorkload(long deadline) {
+        List<ConvertCurrencyRequest> requests = properties.getPairs().stream()
+                .map(pair -> pair.split(":"))
+                .filter(pair -> pair.length == 2)
+                .map(pair -> ConvertCurrencyRequest.builder().from(pair[0].trim()).to(pair[1].trim()).amount(BigDecimal.ONE).build())
+                .toList();
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        int window = Math.max(1, properties.getWindow());
+        long[] latencies = new long[properties.getIterations()];
+        for (int i = 0; i < latencies.length && System.nanoTime() - deadline < 0; i++) {
+            long iterationStart = System.nanoTime();
+            requests.forEach(this::convert);
+            latencies[i] = System.nanoTime() - iterationStart;
+            iterations.set(i + 1);
+
+            if (i + 1 >= 2 * window && isSteady(latencies, i + 1, window)) {
+                steadyState.set(1);
+                return;
+            }
+        }
+    }
+
+    private void convert(ConvertCurrencyRequest request) {
+        try {
+            ConversionOrigin.warmup(() -> currencyService.convert(request));
+            if (properties.isUpstream()) {
+                ConversionOrigin.warmup(() -> UpstreamPriority.background(() -> currencyService.convertAPI(request)));
+            }
+        } catch (Exception e) {
+            log.debug("Warm-up conversion {} -> {} failed: {}", request.getFrom(), request.getTo(), e.getMessage());
+        }
+    }
+
+    private boolean isSteady(long[] latencies, int count, int window) {
+        double current = mean(latencies, count - window, count);
+        double previous = mean(latencies, count - 2 * window, count - window);
+        return previous > 0 && Math.abs(current - previous) / previous <= properties.getTolerance();
+    }
+
+    private static double mean(long[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.ada.currencyapi.service;
 
+import br.com.ada.currencyapi.config.CurrencyClientConfiguration;
 import br.com.ada.currencyapi.domain.CurrencyQuote;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -7,7 +8,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.Map;
 
-@FeignClient(name= "currency-client", url = "https://economia.awesomeapi.com.br/json")
+@FeignClient(name= "currency-client", url = "${currency.client.url}", qualifiers = "feignCurrencyClient", primary = false,
+        configuration = CurrencyClientConfiguration.class)
 public interface CurrencyClient {
     @GetMapping("/last/{coin}")
     Map<String, CurrencyQuote> getCurrencyQuote(@PathVariable("coin")String code);
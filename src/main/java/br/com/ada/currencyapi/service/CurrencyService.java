@@ -2,20 +2,33 @@ package br.com.ada.currencyapi.service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.SimpleTimeZone;
+import java.util.TreeSet;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.ada.currencyapi.domain.ConversionAudit.Source;
 import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
 import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
 import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.domain.CurrencyExchanges;
 import br.com.ada.currencyapi.domain.CurrencyRequest;
 import br.com.ada.currencyapi.domain.CurrencyResponse;
+import br.com.ada.currencyapi.domain.RateLookup;
 import br.com.ada.currencyapi.exception.CoinNotFoundException;
 import br.com.ada.currencyapi.exception.CurrencyException;
+import br.com.ada.currencyapi.exception.UpstreamRateLimitException;
+import br.com.ada.currencyapi.exception.UpstreamUnavailableException;
 import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -23,10 +36,16 @@ import lombok.RequiredArgsConstructor;
 public class CurrencyService {
 
     private final CurrencyRepository currencyRepository;
-    private final CurrencyClient currencyClient;
-
+    private final ExchangeJdbcRepository exchangeJdbcRepository;
+    private final QuoteAggregator quoteAggregator;
+    private final ConversionAuditor conversionAuditor;
+    private final PairUsageStats pairUsageStats;
+    private final CompactExchangeStore compactExchangeStore;
+    private final QuoteRefresher quoteRefresher;
+
+    @Transactional(readOnly = true)
     public List<CurrencyResponse> get() {
-        List<Currency> currencies = currencyRepository.findAll();
+        List<Currency> currencies = RequestTimings.time("db", currencyRepository::findAll);
         List<CurrencyResponse> dtos = new ArrayList<>();
 
         currencies.forEach((currency) -> dtos.add(CurrencyResponse.builder()
@@ -36,6 +55,7 @@ public class CurrencyService {
         return dtos;
     }
 
+    @Transactional
     public Long create(CurrencyRequest request) throws CurrencyException {
 
         if (Objects.isNull(request.getName())) {
@@ -52,65 +72,166 @@ public class CurrencyService {
                 .name(request.getName())
                 .description(request.getDescription())
                 .exchanges(request.getExchanges())
+                .exchangesCompact(compactExchangeStore.forWrite(request.getExchanges()))
                 .build());
         return saved.getId();
     }
 
+    @Transactional
     public void delete(Long id) {
-        Currency Exists = currencyRepository.findById(id).orElseThrow(() -> new CoinNotFoundException("Coin not found"));
-        currencyRepository.deleteById(id);
+        currencyRepository.deleteExchangesByCurrencyIdIn(List.of(id));
+        if (currencyRepository.deleteAllByIdIn(List.of(id)) == 0) {
+            throw new CoinNotFoundException("Coin not found");
+        }
+    }
+
+    /**
+     * Deletes every currency given by id or by name in one transaction, with set-based statements.
+     * Nothing is deleted unless all of them exist.
+     */
+    @Transactional
+    public int delete(Collection<Long> ids, Collection<String> names) throws CurrencyException, CoinNotFoundException {
+        if (isEmpty(ids) && isEmpty(names)) {
+            throw new CurrencyException("Ids or names of the coins to delete are required");
+        }
+
+        Set<Long> targets = new TreeSet<>();
+        List<String> missing = new ArrayList<>();
+
+        if (!isEmpty(ids)) {
+            Set<Long> existing = new HashSet<>(currencyRepository.findExistingIds(ids));
+            ids.forEach(id -> {
+                if (!existing.contains(id)) {
+                    missing.add(String.valueOf(id));
+                }
+            });
+            targets.addAll(existing);
+        }
+
+        if (!isEmpty(names)) {
+            Map<String, Long> byName = exchangeJdbcRepository.findIdsByNames(names);
+            names.forEach(name -> {
+                Long id = byName.get(name);
+                if (Objects.isNull(id)) {
+                    missing.add(name);
+                } else {
+                    targets.add(id);
+                }
+            });
+        }
+
+        if (!missing.isEmpty()) {
+            throw new CoinNotFoundException(String.format("Coins not found: %s", String.join(", ", missing)));
+        }
+
+        currencyRepository.deleteExchangesByCurrencyIdIn(targets);
+        return currencyRepository.deleteAllByIdIn(targets);
     }
 
+    private static boolean isEmpty(Collection<?> values) {
+        return Objects.isNull(values) || values.isEmpty();
+    }
+
+    @Transactional(readOnly = true)
     public ConvertCurrencyResponse convert(ConvertCurrencyRequest request) throws CoinNotFoundException {
-        BigDecimal amount = getAmount(request);
+        long start = System.nanoTime();
+        BigDecimal rate = getRate(request);
+        recordConversion(request, rate, Source.LOCAL, start);
         return ConvertCurrencyResponse.builder()
-                .amount(amount)
+                .amount(request.getAmount().multiply(rate))
                 .build();
 
     }
 
     public ConvertCurrencyResponse convertAPI(ConvertCurrencyRequest request) throws CoinNotFoundException {
-        BigDecimal amountAPI = getAmountAPI(request);
+        long start = System.nanoTime();
+        BigDecimal rate = getRateAPI(request);
+        recordConversion(request, rate, Source.UPSTREAM, start);
         return ConvertCurrencyResponse.builder()
-                .amount(amountAPI)
+                .amount(request.getAmount().multiply(rate))
                 .build();
     }
 
-    private BigDecimal getAmount(ConvertCurrencyRequest request) throws CoinNotFoundException {
-        Currency currency = currencyRepository.findByName(request.getFrom());
+    /**
+     * Audits the conversion and counts it as pair demand, unless it is warm-up traffic.
+     */
+    private void recordConversion(ConvertCurrencyRequest request, BigDecimal rate, Source source, long start) {
+        if (ConversionOrigin.current() == ConversionOrigin.WARMUP) {
+            return;
+        }
+        if (source == Source.UPSTREAM) {
+            pairUsageStats.recordUpstream(request.getFrom(), request.getTo(), System.nanoTime() - start);
+        } else {
+            pairUsageStats.record(request.getFrom(), request.getTo(), System.nanoTime() - start);
+        }
+        conversionAuditor.record(request.getFrom(), request.getTo(), request.getAmount(), rate, source);
+    }
+
+    private BigDecimal getRate(ConvertCurrencyRequest request) throws CoinNotFoundException {
+        if (compactExchangeStore.readsCompact()) {
+            Map<String, BigDecimal> exchanges = getCompactExchanges(request);
+            if (Objects.nonNull(exchanges)) {
+                return requireRate(exchanges.get(request.getTo()), request);
+            }
+        }
 
-        if (Objects.isNull(currency)) {
+        RateLookup lookup = RequestTimings.time("db", () -> currencyRepository.findRate(request.getFrom(), request.getTo()));
+
+        if (Objects.isNull(lookup)) {
             throw new CoinNotFoundException(String.format("Coin not found: %s", request.getFrom()));
         }
 
-        BigDecimal exchange = currency.getExchanges().get(request.getTo());
+        return requireRate(lookup.getRate(), request);
+    }
 
+    private static BigDecimal requireRate(BigDecimal exchange, ConvertCurrencyRequest request) throws CoinNotFoundException {
         if (Objects.isNull(exchange)) {
             throw new CoinNotFoundException(String.format("Exchange %s not found for %s", request.getTo(), request.getFrom()));
         }
 
-        return request.getAmount().multiply(exchange);
+        return exchange;
+    }
+
+    /**
+     * Rates from the compact column, or null when this currency has not been backfilled yet.
+     */
+    private Map<String, BigDecimal> getCompactExchanges(ConvertCurrencyRequest request) throws CoinNotFoundException {
+        CurrencyExchanges currency = RequestTimings.time("db", () -> currencyRepository.findCompactByName(request.getFrom()));
+
+        if (Objects.isNull(currency)) {
+            throw new CoinNotFoundException(String.format("Coin not found: %s", request.getFrom()));
+        }
+        return currency.exchanges();
     }
 
-    private BigDecimal getAmountAPI(ConvertCurrencyRequest request) throws CoinNotFoundException {
-        Currency from = currencyRepository.findByName(request.getFrom());
+    private BigDecimal getRateAPI(ConvertCurrencyRequest request) throws CoinNotFoundException {
+        boolean exists = RequestTimings.time("db", () -> currencyRepository.existsByName(request.getFrom()));
 
-        if (Objects.isNull(from)) {
+        if (!exists) {
             throw new CoinNotFoundException(String.format("Coin not found: %s", request.getFrom()));
         }
 
-        StringBuilder code = new StringBuilder();
-        code.append(request.getFrom());
-        code.append("-");
-        code.append(request.getTo());
+        if (!quoteAggregator.useMedian(request.getAmount())) {
+            Optional<BigDecimal> shared = quoteRefresher.findFresh(request.getFrom(), request.getTo());
+            if (shared.isPresent()) {
+                return shared.get();
+            }
+        }
 
+        BigDecimal rate;
         try {
-            BigDecimal AmountExchange = currencyClient.getCurrencyQuote(code.toString()).get(code.toString().replace("-", "")).low();
-            return request.getAmount().multiply(AmountExchange);
+            rate = RequestTimings.time("upstream", () -> quoteAggregator.getRate(request.getFrom(), request.getTo(), request.getAmount()));
 
+        } catch (UpstreamRateLimitException | UpstreamUnavailableException e) {
+            throw e;
         }catch(Exception e){
             throw new CoinNotFoundException(String.format("Exchange %s not found for %s", request.getTo(), request.getFrom()));
         }
 
+        if (Objects.isNull(rate)) {
+            throw new CoinNotFoundException(String.format("Exchange %s not found for %s", request.getTo(), request.getFrom()));
+        }
+        return rate;
+
     }
 }
@@ -0,0 +1,12 @@
+package br.com.ada.currencyapi.service;
+
+import br.com.ada.currencyapi.domain.FrankfurterRates;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@FeignClient(name = "frankfurter-client", url = "${currency.providers.frankfurter.url}")
+public interface FrankfurterClient {
+    @GetMapping("/latest")
+    FrankfurterRates getLatest(@RequestParam("from") String from, @RequestParam("to") String to);
+}
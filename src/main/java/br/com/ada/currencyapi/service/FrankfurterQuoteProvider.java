@@ -0,0 +1,45 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import br.com.ada.currencyapi.domain.FrankfurterRates;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ECB reference rates published by frankfurter.app. Covers fewer currencies than awesomeapi but has no quota.
+ */
+@Order(2)
+@Component
+@RequiredArgsConstructor
+public class FrankfurterQuoteProvider implements QuoteProvider {
+
+    private final FrankfurterClient frankfurterClient;
+
+    @Override
+    public String name() {
+        return "frankfurter";
+    }
+
+    @Override
+    public BigDecimal getRate(String from, String to) throws CoinNotFoundException {
+        FrankfurterRates latest;
+        try {
+            latest = frankfurterClient.getLatest(from, to);
+        } catch (FeignException.NotFound e) {
+            throw new CoinNotFoundException(String.format("Exchange %s not found for %s", to, from));
+        }
+
+        BigDecimal rate = Objects.isNull(latest) || Objects.isNull(latest.rates()) ? null : latest.rates().get(to);
+        if (Objects.isNull(rate)) {
+            throw new CoinNotFoundException(String.format("Exchange %s not found for %s", to, from));
+        }
+
+        return rate;
+    }
+}
@@ -0,0 +1,286 @@
+package br.com.ada.currencyapi.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import br.com.ada.currencyapi.config.PairStatsProperties;
+import br.com.ada.currencyapi.domain.PairUsageResponse;
+
+/**
+ * Per-pair conversion counts over sliding windows and a latency histogram, recorded on the request
+ * path with {@link LongAdder}s only, so concurrent conversions of the same pair never contend on one
+ * cache line. Only successful client conversions are recorded: warm-up traffic is not demand. That
+ * bounds the pairs by the catalogue; {@code max-pairs} caps them anyway. Once the cap is reached, pairs
+ * idle over the whole horizon ({@code slice * slices}) are dropped, at most once per slice, to make room
+ * for new ones; only while every tracked pair is still active are further pairs folded into {@code *:*}.
+ * <p>
+ * Windows are made of {@code slice}-long buckets reused round-robin, so a window is accurate to one
+ * slice. Latencies go to log-linear buckets (four per power of two of microseconds), so percentiles are
+ * within 25% of the real value. They are kept in two histograms that take turns, one per horizon, so
+ * percentiles cover the last one to two horizons rather than everything since startup.
+ */
+@Component
+@EnableConfigurationProperties(PairStatsProperties.class)
+public class PairUsageStats {
+
+    static final String OVERFLOW = "*:*";
+
+    private final PairStatsProperties properties;
+    private final LongSupplier clock;
+    private final long sliceMillis;
+    private final Map<String, PairCounter> pairs = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(-1);
+
+    @Autowired
+    public PairUsageStats(PairStatsProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    PairUsageStats(PairStatsProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.sliceMillis = Math.max(1, properties.getSlice().toMillis());
+    }
+
+    public void record(String from, String to, long nanos) {
+        record(from, to, nanos, false);
+    }
+
+    /**
+     * Records a conversion served from the quote API, or from the shared quote that stands in for it;
+     * counted with the others and, separately, as upstream demand.
+     */
+    public void recordUpstream(String from, String to, long nanos) {
+        record(from, to, nanos, true);
+    }
+
+    private void record(String from, String to, long nanos, boolean upstream) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long epoch = clock.getAsLong() / sliceMillis;
+        String key = from + ":" + to;
+        PairCounter counter = pairs.get(key);
+        if (counter == null) {
+            if (pairs.size() >= properties.getMaxPairs()) {
+                evictIdle(epoch);
+            }
+            counter = pairs.size() < properties.getMaxPairs()
+                    ? pairs.computeIfAbsent(key, k -> new PairCounter(properties.getSlices()))
+                    : pairs.computeIfAbsent(OVERFLOW, k -> new PairCounter(properties.getSlices()));
+        }
+        counter.record(epoch, nanos, upstream);
+    }
+
+    private void evictIdle(long epoch) {
+        long last = lastSweep.get();
+        if (last == epoch || !lastSweep.compareAndSet(last, epoch)) {
+            return;
+        }
+        // an idle pair has nothing left in any window; a conversion racing with its removal may be lost
+        int slices = properties.getSlices();
+        pairs.values().removeIf(counter -> counter.count(epoch, slices) == 0);
+    }
+
+    /**
+     * The {@code limit} most converted pairs over the last {@code window}, which is rounded up to whole
+     * slices and capped at the tracked horizon.
+     */
+    public List<PairUsageResponse> top(Duration window, int limit) {
+        long now = clock.getAsLong() / sliceMillis;
+        int slices = slices(window);
+        double seconds = slices * sliceMillis / 1000.0;
+
+        return pairs.entrySet().stream()
+                .map(entry -> new Ranked(entry.getKey(), entry.getValue(), entry.getValue().count(now, slices)))
+                .filter(ranked -> ranked.count() > 0)
+                .sorted(Comparator.comparingLong(Ranked::count).reversed().thenComparing(Ranked::key))
+                .limit(Math.max(0, limit))
+                .map(ranked -> {
+                    String[] pair = ranked.key().split(":", 2);
+                    return PairUsageResponse.builder()
+                            .from(pair[0])
+                            .to(pair[1])
+                            .count(ranked.count())
+                            .perSecond(ranked.count() / seconds)
+                            .p50Millis(ranked.counter().percentileMillis(now, 0.5))
+                            .p99Millis(ranked.counter().percentileMillis(now, 0.99))
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Conversions per second of one pair over the last {@code window}, for refresh scheduling.
+     */
+    public double rate(String from, String to, Duration window) {
+        PairCounter counter = pairs.get(from + ":" + to);
+        if (counter == null) {
+            return 0;
+        }
+        int slices = slices(window);
+        return counter.count(clock.getAsLong() / sliceMillis, slices) / (slices * sliceMillis / 1000.0);
+    }
+
+    /**
+     * Upstream conversions per second of one pair over the last {@code window}: the demand a shared
+     * quote serves. Like every count here it is this node's traffic only.
+     */
+    public double upstreamRate(String from, String to, Duration window) {
+        PairCounter counter = pairs.get(from + ":" + to);
+        if (counter == null) {
+            return 0;
+        }
+        int slices = slices(window);
+        return counter.upstreamCount(clock.getAsLong() / sliceMillis, slices) / (slices * sliceMillis / 1000.0);
+    }
+
+    /**
+     * Number of pairs converted at least once in the last {@code window}, for cache sizing.
+     */
+    public int activePairs(Duration window) {
+        long now = clock.getAsLong() / sliceMillis;
+        int slices = slices(window);
+        return (int) pairs.values().stream().filter(counter -> counter.count(now, slices) > 0).count();
+    }
+
+    private int slices(Duration window) {
+        long slices = (window.toMillis() + sliceMillis - 1) / sliceMillis;
+        return (int) Math.max(1, Math.min(properties.getSlices(), slices));
+    }
+
+    private record Ranked(String key, PairCounter counter, long count) {
+    }
+
+    private static final class PairCounter {
+
+        private static final int SUB_BUCKETS = 4;
+        private static final int MAX_EXPONENT = 24;
+        private static final int BUCKETS = (MAX_EXPONENT - 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+        private final LongAdder[] counts;
+        private final LongAdder[] upstream;
+        private final AtomicLong[] epochs;
+        private final LongAdder[][] latencies = new LongAdder[2][BUCKETS];
+        private final AtomicLong[] generations = {new AtomicLong(-1), new AtomicLong(-1)};
+
+        private PairCounter(int slices) {
+            counts = new LongAdder[slices];
+            upstream = new LongAdder[slices];
+            epochs = new AtomicLong[slices];
+            for (int i = 0; i < slices; i++) {
+                counts[i] = new LongAdder();
+                upstream[i] = new LongAdder();
+                epochs[i] = new AtomicLong(-1);
+            }
+            for (LongAdder[] histogram : latencies) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    histogram[i] = new LongAdder();
+                }
+            }
+        }
+
+        void record(long epoch, long nanos, boolean fromUpstream) {
+            int index = (int) (epoch % counts.length);
+            long current = epochs[index].get();
+            if (current != epoch && epochs[index].compareAndSet(current, epoch)) {
+                // a slice is reused once per round; increments racing with the reset may be lost
+                counts[index].reset();
+                upstream[index].reset();
+            }
+            counts[index].increment();
+            if (fromUpstream) {
+                upstream[index].increment();
+            }
+
+            long generation = epoch / counts.length;
+            int histogram = (int) (generation % latencies.length);
+            long previous = generations[histogram].get();
+            if (previous != generation && generations[histogram].compareAndSet(previous, generation)) {
+                for (LongAdder latency : latencies[histogram]) {
+                    latency.reset();
+                }
+            }
+            latencies[histogram][bucket(TimeUnit.NANOSECONDS.toMicros(nanos))].increment();
+        }
+
+        long count(long now, int slices) {
+            return sum(counts, now, slices);
+        }
+
+        long upstreamCount(long now, int slices) {
+            return sum(upstream, now, slices);
+        }
+
+        private long sum(LongAdder[] adders, long now, int slices) {
+            long total = 0;
+            for (long epoch = now - slices + 1; epoch <= now; epoch++) {
+                int index = Math.floorMod(epoch, adders.length);
+                if (epochs[index].get() == epoch) {
+                    total += adders[index].sum();
+                }
+            }
+            return total;
+        }
+
+        double percentileMillis(long now, double percentile) {
+            long generation = now / counts.length;
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int h = 0; h < latencies.length; h++) {
+                if (generations[h].get() < generation - 1) {
+                    continue;
+                }
+                for (int i = 0; i < BUCKETS; i++) {
+                    long count = latencies[h][i].sum();
+                    snapshot[i] += count;
+                    total += count;
+                }
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return upperBound(i) / 1000.0;
+                }
+            }
+            return upperBound(BUCKETS - 1) / 1000.0;
+        }
+
+        static int bucket(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) Math.max(0, micros);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            if (exponent >= MAX_EXPONENT) {
+                return BUCKETS - 1;
+            }
+            int sub = (int) ((micros >>> (exponent - 2)) & (SUB_BUCKETS - 1));
+            return (exponent - 1) * SUB_BUCKETS + sub;
+        }
+
+        static long upperBound(int bucket) {
+            int next = bucket + 1;
+            if (next < SUB_BUCKETS) {
+                return next;
+            }
+            int exponent = next / SUB_BUCKETS + 1;
+            return (long) (SUB_BUCKETS + next % SUB_BUCKETS) << (exponent - 2);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import br.com.ada.currencyapi.config.QuoteProviderProperties;
+import br.com.ada.currencyapi.exception.UpstreamUnavailableException;
+
+/**
+ * Asks the configured {@link QuoteProvider}s for a rate. By default the primary is asked first and,
+ * if it has not answered within the configured percentile of its own recent latency, the next
+ * provider is asked as well; the first good answer wins and a failure moves on to the next provider
+ * straight away. Conversions above {@code currency.providers.median.min-amount} instead take the
+ * median of several providers.
+ */
+@Service
+@EnableConfigurationProperties(QuoteProviderProperties.class)
+public class QuoteAggregator {
+
+    private static final int MIN_LATENCY_SAMPLES = 16;
+
+    private final List<QuoteProvider> providers;
+    private final QuoteProviderProperties properties;
+    private final ExecutorService executor;
+    private final LatencyWindow primaryLatency;
+
+    public QuoteAggregator(List<QuoteProvider> providers,
+                           QuoteProviderProperties properties,
+                           @Qualifier("quoteExecutor") ExecutorService executor) {
+        this.providers = ordered(providers, properties.getOrder());
+        this.properties = properties;
+        this.executor = executor;
+        this.primaryLatency = new LatencyWindow(properties.getHedge().getWindow());
+
+        if (this.providers.isEmpty()) {
+            throw new IllegalStateException("No quote provider matches currency.providers.order " + properties.getOrder());
+        }
+    }
+
+    public BigDecimal getRate(String from, String to, BigDecimal amount) {
+        UpstreamPriority priority = UpstreamPriority.current();
+
+        if (useMedian(amount)) {
+            return median(from, to, priority);
+        }
+
+        return await(new HedgedCall(from, to, priority).start());
+    }
+
+    long hedgeDelayNanos() {
+        QuoteProviderProperties.Hedge hedge = properties.getHedge();
+        long min = hedge.getMinDelay().toNanos();
+        long max = hedge.getMaxDelay().toNanos();
+        return Math.max(min, Math.min(max, primaryLatency.percentile(hedge.getPercentile(), max)));
+    }
+
+    /**
+     * Whether a conversion of {@code amount} takes the median of every provider instead of the first
+     * answer, which a shared quote fetched from a single provider must not stand in for.
+     */
+    public boolean useMedian(BigDecimal amount) {
+        BigDecimal minAmount = properties.getMedian().getMinAmount();
+        return Objects.nonNull(minAmount) && Objects.nonNull(amount) && providers.size() > 1
+                && amount.compareTo(minAmount) >= 0;
+    }
+
+    private BigDecimal median(String from, String to, UpstreamPriority priority) {
+        List<CompletableFuture<BigDecimal>> calls = providers.stream()
+                .limit(properties.getMedian().getProviders())
+                .map(provider -> call(provider, from, to, priority))
+                .toList();
+
+        try {
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                    .get(properties.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // take the median of whoever did answer
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamUnavailableException("Interrupted while waiting for quote providers");
+        }
+
+        List<BigDecimal> rates = calls.stream()
+                .filter(call -> call.isDone() && !call.isCompletedExceptionally())
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+
+        if (rates.isEmpty()) {
+            return await(calls.get(0));
+        }
+
+        int middle = rates.size() / 2;
+        if (rates.size() % 2 == 1) {
+            return rates.get(middle);
+        }
+        BigDecimal sum = rates.get(middle - 1).add(rates.get(middle));
+        return sum.divide(BigDecimal.valueOf(2), sum.scale() + 1, RoundingMode.HALF_EVEN).stripTrailingZeros();
+    }
+
+    private CompletableFuture<BigDecimal> call(QuoteProvider provider, String from, String to, UpstreamPriority priority) {
+        try {
+            return CompletableFuture.supplyAsync(() -> UpstreamPriority.with(priority, () -> provider.getRate(from, to)), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new UpstreamUnavailableException("Quote providers are saturated, try again later"));
+        }
+    }
+
+    private BigDecimal await(CompletableFuture<BigDecimal> rate) {
+        try {
+            return rate.get(properties.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new UpstreamUnavailableException("Quote providers did not answer in time");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamUnavailableException("Interrupted while waiting for quote providers");
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && Objects.nonNull(failure.getCause())
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new UpstreamUnavailableException("Quote provider failed: " + cause);
+    }
+
+    private static List<QuoteProvider> ordered(List<QuoteProvider> providers, List<String> order) {
+        if (order.isEmpty()) {
+            return List.copyOf(providers);
+        }
+        Map<String, QuoteProvider> byName = providers.stream()
+                .collect(Collectors.toMap(QuoteProvider::name, Function.identity()));
+        return order.stream()
+                .map(byName::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * One hedged lookup. {@code outstanding} is raised before a provider index is claimed, so it only
+     * reaches zero once every launched call has failed and no launch is pending.
+     */
+    private final class HedgedCall {
+
+        private final String from;
+        private final String to;
+        private final UpstreamPriority priority;
+        private final CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+
+        private HedgedCall(String from, String to, UpstreamPriority priority) {
+            this.from = from;
+            this.to = to;
+            this.priority = priority;
+        }
+
+        private CompletableFuture<BigDecimal> start() {
+            launchNext();
+            if (providers.size() > 1) {
+                CompletableFuture.delayedExecutor(hedgeDelayNanos(), TimeUnit.NANOSECONDS, executor).execute(() -> {
+                    if (!result.isDone()) {
+                        launchNext();
+                    }
+                });
+            }
+            return result;
+        }
+
+        private void launchNext() {
+            outstanding.incrementAndGet();
+            int index = next.getAndIncrement();
+            if (index >= providers.size()) {
+                settle();
+                return;
+            }
+
+            long start = System.nanoTime();
+            call(providers.get(index), from, to, priority).whenComplete((rate, failure) -> {
+                if (Objects.isNull(failure) && Objects.nonNull(rate)) {
+                    if (index == 0) {
+                        primaryLatency.record(System.nanoTime() - start);
+                    }
+                    result.complete(rate);
+                } else {
+                    firstFailure.compareAndSet(null, Objects.isNull(failure)
+                            ? new UpstreamUnavailableException("Quote provider returned no rate")
+                            : unwrap(failure));
+                    if (!result.isDone()) {
+                        launchNext();
+                    }
+                }
+                settle();
+            });
+        }
+
+        private void settle() {
+            if (outstanding.decrementAndGet() == 0 && !result.isDone()) {
+                result.completeExceptionally(firstFailure.get());
+            }
+        }
+    }
+
+    private static final class LatencyWindow {
+
+        private final AtomicLongArray samples;
+        private final AtomicLong count = new AtomicLong();
+
+        private LatencyWindow(int size) {
+            this.samples = new AtomicLongArray(size);
+        }
+
+        private void record(long nanos) {
+            samples.set((int) (count.getAndIncrement() % samples.length()), nanos);
+        }
+
+        private long percentile(double percentile, long fallback) {
+            int size = (int) Math.min(count.get(), samples.length());
+            if (size < MIN_LATENCY_SAMPLES) {
+                return fallback;
+            }
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, Math.min(size - 1, (int) Math.ceil(percentile * size) - 1))];
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.ada.currencyapi.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+/**
+ * Decodes the quote API's {@code {"USDBRL": {...}, ...}} bodies straight off the response stream,
+ * keeping only {@code code}, {@code codein}, {@code low}, {@code high} and {@code pctChange} of the pairs
+ * named in the request path; the last two feed {@link QuoteVolatility}.
+ * Every other field and pair is skipped token by token, so none of their strings or decimals are ever
+ * built; the returned quotes leave the skipped fields null.
+ */
+public class QuoteDecoder implements Decoder {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (!isQuoteMap(type)) {
+            throw new DecodeException(response.status(), "Unsupported type " + type, response.request());
+        }
+        if (Objects.isNull(response.body())) {
+            return Map.of();
+        }
+
+        try (InputStream body = response.body().asInputStream(); JsonParser parser = JSON.createParser(body)) {
+            return read(parser, requestedPairs(response.request().url()));
+        } catch (IOException e) {
+            throw new DecodeException(response.status(), "Malformed quote response: " + e.getMessage(), response.request(), e);
+        }
+    }
+
+    /**
+     * Reads the quotes of {@code pairs}, or of every pair when it is empty.
+     */
+    static Map<String, CurrencyQuote> read(JsonParser parser, Set<String> pairs) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected an object of quotes");
+        }
+
+        Map<String, CurrencyQuote> quotes = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String pair = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value != JsonToken.START_OBJECT || (!pairs.isEmpty() && !pairs.contains(pair))) {
+                parser.skipChildren();
+                continue;
+            }
+            quotes.put(pair, readQuote(parser));
+        }
+        return quotes;
+    }
+
+    private static CurrencyQuote readQuote(JsonParser parser) throws IOException {
+        CurrencyQuote.CurrencyQuoteBuilder quote = CurrencyQuote.builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "code" -> quote.code(text(parser, value));
+                case "codein" -> quote.codein(text(parser, value));
+                case "low" -> quote.low(decimal(parser, value));
+                case "high" -> quote.high(decimal(parser, value));
+                case "pctChange" -> quote.pctChange(text(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return quote.build();
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static BigDecimal decimal(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            String text = parser.getText();
+            if (text.isBlank()) {
+                return null;
+            }
+            try {
+                return new BigDecimal(text.trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid decimal: " + text, e);
+            }
+        }
+        if (value.isNumeric()) {
+            return parser.getDecimalValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    /**
+     * Response keys of the pairs in a {@code /last/USD-BRL,EUR-BRL} path: {@code USDBRL} and {@code EURBRL}.
+     */
+    static Set<String> requestedPairs(String url) {
+        String path = URLDecoder.decode(url.substring(url.lastIndexOf('/') + 1), StandardCharsets.UTF_8);
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+
+        Set<String> pairs = new HashSet<>();
+        for (String pair : path.split(",")) {
+            if (pair.indexOf('-') > 0) {
+                pairs.add(pair.replace("-", ""));
+            }
+        }
+        return pairs;
+    }
+
+    private static boolean isQuoteMap(Type type) {
+        return type instanceof ParameterizedType map
+                && map.getRawType() == Map.class
+                && map.getActualTypeArguments()[1] == CurrencyQuote.class;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+
+/**
+ * A source of live exchange rates. Implementations throw {@link CoinNotFoundException} when they have
+ * no quote for the pair and any other runtime exception when they could not be asked.
+ */
+public interface QuoteProvider {
+
+    String name();
+
+    BigDecimal getRate(String from, String to) throws CoinNotFoundException;
+}
@@ -0,0 +1,408 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import br.com.ada.currencyapi.config.QuoteRefreshProperties;
+import br.com.ada.currencyapi.domain.UpstreamQuote;
+import br.com.ada.currencyapi.repository.QuoteDemandJdbcRepository;
+import br.com.ada.currencyapi.repository.QuoteLeaseJdbcRepository;
+import br.com.ada.currencyapi.repository.UpstreamQuoteJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the configured pairs fresh in {@code upstream_quote} with one upstream poller per shard across
+ * the cluster. Every {@code lease / 3} each node renews the shards it holds and tries to take those
+ * nobody holds, then refreshes the due pairs of its own shards at background priority. A round gets
+ * {@code lease / 3} of refreshing; due pairs it did not reach wait for the next one. An upstream call
+ * that outlasts that renews the shard before its quote is written, so slow calls cannot leave a lease
+ * unrenewed for longer than one call. A node that stops releases its shards, so they move on the next
+ * attempt; one that dies loses them when its lease runs out. Writes are fenced by the lease, so a node
+ * that lost a shard without noticing cannot overwrite its new owner.
+ * <p>
+ * With {@code adaptive} enabled a pair is due once it is expected to have drifted by {@code tolerance}:
+ * its volatility, an average of the moves between refreshes and of the day's range from
+ * {@link QuoteVolatility}, is stored with the quote so it survives a change of leader, and the interval
+ * it implies is shortened by the pair's upstream conversions across the cluster: every round each node
+ * reports its own to {@code quote_demand} and the leader sums the reports younger than a lease. The
+ * freshness error metric records how far each refresh moved the quote it replaced, which is what
+ * conversions were served meanwhile.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(QuoteRefreshProperties.class)
+public class QuoteRefresher implements SmartLifecycle {
+
+    private final QuoteRefreshProperties properties;
+    private final QuoteLeaseJdbcRepository leaseRepository;
+    private final UpstreamQuoteJdbcRepository quoteRepository;
+    private final QuoteDemandJdbcRepository demandRepository;
+    private final QuoteAggregator quoteAggregator;
+    private final PairUsageStats pairUsageStats;
+    private final QuoteVolatility quoteVolatility;
+    private final boolean virtualThreads;
+    private final String nodeId;
+    private final Set<Integer> owned = ConcurrentHashMap.newKeySet();
+    private final Map<String, Duration> intervals = new ConcurrentHashMap<>();
+    private final Counter refreshed;
+    private final Counter failed;
+    private final Counter fenced;
+    private final DistributionSummary freshnessError;
+    private volatile ScheduledExecutorService scheduler;
+
+    public QuoteRefresher(QuoteRefreshProperties properties,
+                          QuoteLeaseJdbcRepository leaseRepository,
+                          UpstreamQuoteJdbcRepository quoteRepository,
+                          QuoteDemandJdbcRepository demandRepository,
+                          QuoteAggregator quoteAggregator,
+                          PairUsageStats pairUsageStats,
+                          QuoteVolatility quoteVolatility,
+                          MeterRegistry meterRegistry,
+                          Environment environment) {
+        this.properties = properties;
+        this.leaseRepository = leaseRepository;
+        this.quoteRepository = quoteRepository;
+        this.demandRepository = demandRepository;
+        this.quoteAggregator = quoteAggregator;
+        this.pairUsageStats = pairUsageStats;
+        this.quoteVolatility = quoteVolatility;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.nodeId = StringUtils.hasText(properties.getNodeId()) ? properties.getNodeId() : defaultNodeId();
+        this.refreshed = refreshCounter(meterRegistry, "ok");
+        this.failed = refreshCounter(meterRegistry, "failed");
+        this.fenced = refreshCounter(meterRegistry, "fenced");
+        Gauge.builder("currency.quotes.shards.owned", owned, Set::size)
+                .description("Quote refresh shards this node leads")
+                .register(meterRegistry);
+        this.freshnessError = DistributionSummary.builder("currency.quotes.freshness.error")
+                .description("Relative move of a pair found by each refresh, the error of the quote it replaced")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("currency.quotes.refresh.planned", this, QuoteRefresher::plannedPerSecond)
+                .description("Upstream refreshes per second planned for the shards this node leads")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The shared quote of a refreshed pair, if it is no older than {@code max-age} or, with
+     * {@code adaptive} enabled, its planned refresh is less than a lease overdue.
+     */
+    public Optional<BigDecimal> findFresh(String from, String to) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        Instant oldest = now.minus(properties.getMaxAge());
+        Instant overdue = now.minus(properties.getLease());
+        return RequestTimings.time("db", () -> quoteRepository.find(from, to))
+                .filter(quote -> !quote.getFetchedAt().isBefore(oldest)
+                        || (properties.getAdaptive().isEnabled()
+                        && Objects.nonNull(quote.getNextRefreshAt())
+                        && quote.getNextRefreshAt().isAfter(overdue)))
+                .map(UpstreamQuote::getRate);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Set<Integer> getOwnedShards() {
+        return Set.copyOf(owned);
+    }
+
+    static int shardOf(String pair, int shards) {
+        return Math.floorMod(pair.hashCode(), shards);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || properties.getPairs().isEmpty()) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(threadFactory());
+        executor.scheduleWithFixedDelay(this::tick, 0, renewal().toMillis(), TimeUnit.MILLISECONDS);
+        scheduler = executor;
+        log.info("Quote refresher {} started for {} pairs in {} shards", nodeId, properties.getPairs().size(), properties.getShards());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (Objects.isNull(executor)) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Instant now = Instant.now();
+        for (Integer shard : owned) {
+            try {
+                leaseRepository.release(shard, nodeId, now);
+            } catch (Exception e) {
+                log.warn("Could not release quote shard {}: {}", shard, e.getMessage());
+            }
+        }
+        owned.clear();
+        if (properties.getAdaptive().isEnabled()) {
+            try {
+                demandRepository.delete(nodeId);
+            } catch (Exception e) {
+                log.warn("Could not withdraw quote demand of {}: {}", nodeId, e.getMessage());
+            }
+        }
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return Objects.nonNull(scheduler);
+    }
+
+    /**
+     * One round: report this node's demand when adaptive, renew or take every shard, then refresh the
+     * due pairs of the ones held until {@code lease / 3} has passed.
+     */
+    void tick() {
+        try {
+            Instant start = Instant.now();
+            Instant deadline = start.plus(renewal());
+            if (properties.getAdaptive().isEnabled()) {
+                reportDemand(start);
+            }
+            List<Integer> held = new ArrayList<>();
+            for (int shard = 0; shard < properties.getShards(); shard++) {
+                if (acquire(shard)) {
+                    held.add(shard);
+                }
+            }
+            for (Integer shard : held) {
+                if (!Instant.now().isBefore(deadline)) {
+                    return;
+                }
+                refresh(shard, start, deadline);
+            }
+        } catch (Exception e) {
+            log.warn("Quote refresh round failed: {}", e.getMessage());
+        }
+    }
+
+    private Duration renewal() {
+        return Duration.ofMillis(Math.max(1, properties.getLease().toMillis() / 3));
+    }
+
+    private void reportDemand(Instant now) {
+        Duration window = properties.getAdaptive().getDemandWindow();
+        Map<String, Double> demand = new HashMap<>();
+        for (String pair : properties.getPairs()) {
+            String[] codes = pair.split("-", 2);
+            demand.put(pair, pairUsageStats.upstreamRate(codes[0], codes[1], window));
+        }
+        demandRepository.report(nodeId, demand, now);
+    }
+
+    private boolean acquire(int shard) {
+        boolean held = leaseRepository.tryAcquire(shard, nodeId, Instant.now(), properties.getLease());
+        if (held && owned.add(shard)) {
+            log.info("Node {} now refreshes quote shard {}", nodeId, shard);
+        } else if (!held && owned.remove(shard)) {
+            log.info("Node {} lost quote shard {}", nodeId, shard);
+        }
+        return held;
+    }
+
+    private void refresh(int shard, Instant renewedAt, Instant deadline) {
+        List<String> pairs = new ArrayList<>();
+        for (String pair : properties.getPairs()) {
+            if (shardOf(pair, properties.getShards()) == shard) {
+                pairs.add(pair);
+            }
+        }
+
+        Map<String, UpstreamQuote> stored = quoteRepository.findAll(pairs);
+        Map<String, Double> demand = properties.getAdaptive().isEnabled()
+                ? demandRepository.findTotals(pairs, renewedAt.minus(properties.getLease()))
+                : Map.of();
+        for (String pair : pairs) {
+            String[] codes = pair.split("-", 2);
+            UpstreamQuote last = stored.get(pair);
+            if (Objects.nonNull(last)) {
+                Duration interval = interval(last.getVariance(), demand.getOrDefault(pair, 0.0));
+                intervals.put(pair, interval);
+                if (last.getFetchedAt().plus(interval).isAfter(Instant.now())) {
+                    continue;
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (!Instant.now().isBefore(deadline)) {
+                log.debug("Quote refresh round of shard {} ran out of time before {}", shard, pair);
+                return;
+            }
+
+            try {
+                BigDecimal rate = UpstreamPriority.background(() -> quoteAggregator.getRate(codes[0], codes[1], null));
+                Instant now = Instant.now();
+                if (!now.isBefore(renewedAt.plus(renewal()))) {
+                    if (!acquire(shard)) {
+                        return;
+                    }
+                    renewedAt = now;
+                }
+                Double variance = variance(codes[0], codes[1], last, rate, now);
+                Duration interval = interval(variance, demand.getOrDefault(pair, 0.0));
+                UpstreamQuote quote = UpstreamQuote.builder()
+                        .pair(pair)
+                        .fromCurrency(codes[0])
+                        .toCurrency(codes[1])
+                        .rate(rate)
+                        .fetchedAt(now)
+                        .fetchedBy(nodeId)
+                        .variance(variance)
+                        .nextRefreshAt(now.plus(interval))
+                        .build();
+                if (quoteRepository.write(shard, quote)) {
+                    refreshed.increment();
+                    intervals.put(pair, interval);
+                    if (Objects.nonNull(last) && last.getRate().signum() > 0) {
+                        freshnessError.record(Math.abs(rate.doubleValue() / last.getRate().doubleValue() - 1));
+                    }
+                } else {
+                    fenced.increment();
+                    owned.remove(shard);
+                    log.info("Node {} lost quote shard {} while refreshing it", nodeId, shard);
+                    return;
+                }
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("Could not refresh quote {}: {}", pair, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Refresh interval of a pair: fixed, or the time it takes to drift by {@code tolerance} at
+     * {@code variance}, divided by {@code 1 + demand / busy-rate}, demand being the cluster's upstream
+     * conversions of the pair per second.
+     */
+    Duration interval(Double variance, double demand) {
+        QuoteRefreshProperties.Adaptive adaptive = properties.getAdaptive();
+        if (!adaptive.isEnabled()) {
+            return properties.getInterval();
+        }
+        if (Objects.isNull(variance)) {
+            return clamp(properties.getInterval());
+        }
+        if (demand <= 0 || variance <= 0) {
+            return adaptive.getMaxInterval();
+        }
+        double seconds = adaptive.getTolerance() * adaptive.getTolerance() / variance / (1 + demand / adaptive.getBusyRate());
+        return clamp(Duration.ofMillis(Math.round(Math.min(Long.MAX_VALUE / 2.0, seconds * 1000))));
+    }
+
+    /**
+     * Moving average of the pair's variance per second: the squared log move since {@code last} over
+     * the time it took, averaged with the day's range when the quote API reported one.
+     */
+    Double variance(String from, String to, UpstreamQuote last, BigDecimal rate, Instant now) {
+        double sum = 0;
+        int samples = 0;
+        if (Objects.nonNull(last) && last.getRate().signum() > 0 && rate.signum() > 0) {
+            double seconds = Math.max(1, Duration.between(last.getFetchedAt(), now).toMillis() / 1000.0);
+            double move = Math.log(rate.doubleValue() / last.getRate().doubleValue());
+            sum += move * move / seconds;
+            samples++;
+        }
+        OptionalDouble range = quoteVolatility.variance(from, to);
+        if (range.isPresent()) {
+            sum += range.getAsDouble();
+            samples++;
+        }
+
+        Double previous = Objects.isNull(last) ? null : last.getVariance();
+        if (samples == 0) {
+            return previous;
+        }
+        double sample = sum / samples;
+        if (Objects.isNull(previous)) {
+            return sample;
+        }
+        double smoothing = properties.getAdaptive().getSmoothing();
+        return (1 - smoothing) * previous + smoothing * sample;
+    }
+
+    private Duration clamp(Duration interval) {
+        QuoteRefreshProperties.Adaptive adaptive = properties.getAdaptive();
+        if (interval.compareTo(adaptive.getMinInterval()) < 0) {
+            return adaptive.getMinInterval();
+        }
+        return interval.compareTo(adaptive.getMaxInterval()) > 0 ? adaptive.getMaxInterval() : interval;
+    }
+
+    private double plannedPerSecond() {
+        double perSecond = 0;
+        for (Map.Entry<String, Duration> entry : intervals.entrySet()) {
+            if (owned.contains(shardOf(entry.getKey(), properties.getShards()))) {
+                perSecond += 1000.0 / Math.max(1, entry.getValue().toMillis());
+            }
+        }
+        return perSecond;
+    }
+
+    private ThreadFactory threadFactory() {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name("quote-refresher").factory();
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("quote-refresher-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("currency.quotes.refresh")
+                .description("Shared quote refreshes by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+
+/**
+ * Volatility implied by the day's quotes of each pair, as a variance per second of relative moves:
+ * Parkinson's estimator on {@code high} and {@code low}, or the squared {@code pctChange} when the
+ * range is missing. The quote API provider feeds it every quote it receives, so the refresher knows
+ * how a pair moves before it has refreshed it twice.
+ */
+@Component
+public class QuoteVolatility {
+
+    static final int MAX_PAIRS = 10_000;
+    private static final double SECONDS_PER_DAY = 86_400;
+    private static final double PARKINSON = 4 * Math.log(2);
+
+    private final Map<String, Double> variances = new ConcurrentHashMap<>();
+
+    public void observe(String from, String to, CurrencyQuote quote) {
+        OptionalDouble variance = estimate(quote);
+        String key = from + "-" + to;
+        if (variance.isPresent() && (variances.size() < MAX_PAIRS || variances.containsKey(key))) {
+            variances.put(key, variance.getAsDouble());
+        }
+    }
+
+    public OptionalDouble variance(String from, String to) {
+        Double variance = variances.get(from + "-" + to);
+        return Objects.isNull(variance) ? OptionalDouble.empty() : OptionalDouble.of(variance);
+    }
+
+    static OptionalDouble estimate(CurrencyQuote quote) {
+        BigDecimal high = quote.high();
+        BigDecimal low = quote.low();
+        if (Objects.nonNull(high) && Objects.nonNull(low) && low.signum() > 0 && high.compareTo(low) >= 0) {
+            double range = Math.log(high.doubleValue() / low.doubleValue());
+            return OptionalDouble.of(range * range / PARKINSON / SECONDS_PER_DAY);
+        }
+        if (Objects.nonNull(quote.pctChange())) {
+            try {
+                double change = Math.log1p(Double.parseDouble(quote.pctChange().trim()) / 100);
+                if (Double.isFinite(change)) {
+                    return OptionalDouble.of(change * change / SECONDS_PER_DAY);
+                }
+            } catch (NumberFormatException e) {
+                // not a number: no estimate
+            }
+        }
+        return OptionalDouble.empty();
+    }
+}
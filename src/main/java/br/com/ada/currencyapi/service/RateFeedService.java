@@ -0,0 +1,126 @@
+package br.com.ada.currencyapi.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import br.com.ada.currencyapi.domain.RateUpdateRequest;
+import br.com.ada.currencyapi.domain.RatesChangedEvent;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.exception.CurrencyException;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository.ExchangeRate;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class RateFeedService {
+
+    /**
+     * Attempts per chunk. A chunk loses a race when another feed inserts one of its new pairs between
+     * its update and its insert; the retry then finds the row and updates it.
+     */
+    static final int CHUNK_ATTEMPTS = 3;
+
+    private final ExchangeJdbcRepository exchangeJdbcRepository;
+    private final CompactExchangeStore compactExchangeStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public RateFeedService(ExchangeJdbcRepository exchangeJdbcRepository,
+                           CompactExchangeStore compactExchangeStore,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${currency.rates.chunk-size:500}") int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "currency.rates.chunk-size must be positive");
+        this.exchangeJdbcRepository = exchangeJdbcRepository;
+        this.compactExchangeStore = compactExchangeStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Applies a feed of rate changes, one transaction per chunk. When the same pair appears more than
+     * once the last change wins. Every currency must exist before anything is written; once chunks
+     * start committing, a single {@link RatesChangedEvent} is published with whatever was committed.
+     */
+    public int update(List<RateUpdateRequest> updates) throws CurrencyException, CoinNotFoundException {
+        if (Objects.isNull(updates) || updates.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Map<String, BigDecimal>> rates = new TreeMap<>();
+        updates.forEach(update -> {
+            if (Objects.isNull(update.getFrom()) || Objects.isNull(update.getTo()) || Objects.isNull(update.getRate())) {
+                throw new CurrencyException("Rate update must have from, to and rate");
+            }
+            rates.computeIfAbsent(update.getFrom(), from -> new TreeMap<>()).put(update.getTo(), update.getRate());
+        });
+
+        Map<String, Long> ids = exchangeJdbcRepository.findIdsByNames(rates.keySet());
+        rates.keySet().forEach(from -> {
+            if (!ids.containsKey(from)) {
+                throw new CoinNotFoundException(String.format("Coin not found: %s", from));
+            }
+        });
+
+        List<ExchangeRate> rows = new ArrayList<>();
+        rates.forEach((from, exchanges) -> exchanges.forEach((to, rate) ->
+                rows.add(new ExchangeRate(ids.get(from), to, rate))));
+        rows.sort(Comparator.comparing(ExchangeRate::currencyId).thenComparing(ExchangeRate::currencyName));
+
+        Map<Long, String> names = new HashMap<>();
+        ids.forEach((name, id) -> names.put(id, name));
+
+        Map<String, Map<String, BigDecimal>> committed = new TreeMap<>();
+        try {
+            for (int start = 0; start < rows.size(); start += chunkSize) {
+                List<ExchangeRate> chunk = rows.subList(start, Math.min(start + chunkSize, rows.size()));
+                write(chunk);
+                chunk.forEach(row -> committed
+                        .computeIfAbsent(names.get(row.currencyId()), from -> new TreeMap<>())
+                        .put(row.currencyName(), row.rate()));
+            }
+        } finally {
+            if (!committed.isEmpty()) {
+                eventPublisher.publishEvent(new RatesChangedEvent(committed));
+            }
+        }
+
+        log.debug("Applied {} rate changes for {} currencies", rows.size(), committed.size());
+        return rows.size();
+    }
+
+    private void write(List<ExchangeRate> chunk) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    exchangeJdbcRepository.upsertRates(chunk);
+                    compactExchangeStore.refresh(chunk.stream().map(ExchangeRate::currencyId).collect(Collectors.toSet()));
+                });
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Rate chunk raced with another feed, retrying: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.ada.currencyapi.service;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+import br.com.ada.currencyapi.exception.UpstreamRateLimitException;
+import feign.FeignException;
+
+/**
+ * The {@link CurrencyClient} the application injects: takes a permit from the {@link UpstreamLimiter}
+ * at the caller's {@link UpstreamPriority} before delegating to the Feign client, and turns an upstream
+ * 429 into an {@link UpstreamRateLimitException} instead of a failed lookup.
+ */
+@Primary
+@Component
+public class RateLimitedCurrencyClient implements CurrencyClient {
+
+    private final CurrencyClient delegate;
+    private final UpstreamLimiter limiter;
+
+    public RateLimitedCurrencyClient(@Qualifier("feignCurrencyClient") CurrencyClient delegate, UpstreamLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Map<String, CurrencyQuote> getCurrencyQuote(String code) {
+        limiter.acquire(UpstreamPriority.current());
+        try {
+            return delegate.getCurrencyQuote(code);
+        } catch (FeignException.TooManyRequests e) {
+            throw new UpstreamRateLimitException("Quote API rate limit exceeded upstream", Duration.ofSeconds(1));
+        }
+    }
+}
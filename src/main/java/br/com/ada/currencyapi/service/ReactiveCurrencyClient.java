@@ -0,0 +1,47 @@
+package br.com.ada.currencyapi.service;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking counterpart of {@link CurrencyClient}, hitting the same quote API through {@link WebClient}.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveCurrencyClient {
+
+    private static final ParameterizedTypeReference<Map<String, CurrencyQuote>> QUOTES =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+
+    public ReactiveCurrencyClient(WebClient.Builder builder,
+                                  @Value("${currency.client.url}") String url,
+                                  @Value("${currency.client.reactive.max-connections:500}") int maxConnections) {
+        HttpClient httpClient = HttpClient.create(ConnectionProvider.builder("currency-client")
+                .maxConnections(maxConnections)
+                .build());
+        this.webClient = builder
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    public Mono<Map<String, CurrencyQuote>> getCurrencyQuote(String code) {
+        return webClient.get()
+                .uri("/last/{coin}", code)
+                .retrieve()
+                .bodyToMono(QUOTES);
+    }
+}
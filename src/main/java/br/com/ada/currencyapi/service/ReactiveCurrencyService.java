@@ -0,0 +1,67 @@
+package br.com.ada.currencyapi.service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import br.com.ada.currencyapi.domain.ConversionAudit.Source;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive variant of the conversion paths. The JPA lookups are still blocking, so they are moved to
+ * the bounded elastic scheduler; the upstream round-trip holds no thread while in flight.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCurrencyService {
+
+    private final CurrencyService currencyService;
+    private final CurrencyRepository currencyRepository;
+    private final ReactiveCurrencyClient reactiveCurrencyClient;
+    private final ConversionAuditor conversionAuditor;
+
+    public Mono<ConvertCurrencyResponse> convert(ConvertCurrencyRequest request) {
+        return Mono.fromCallable(() -> currencyService.convert(request))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<ConvertCurrencyResponse> convertAPI(ConvertCurrencyRequest request) {
+        String code = "%s-%s".formatted(request.getFrom(), request.getTo());
+
+        return Mono.fromCallable(() -> Optional.ofNullable(currencyRepository.findByName(request.getFrom())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(from -> {
+                    if (from.isEmpty()) {
+                        return Mono.<Map<String, CurrencyQuote>>error(
+                                new CoinNotFoundException(String.format("Coin not found: %s", request.getFrom())));
+                    }
+                    return reactiveCurrencyClient.getCurrencyQuote(code);
+                })
+                .flatMap(quotes -> Mono.justOrEmpty(quotes.get(code.replace("-", ""))))
+                .map(CurrencyQuote::low)
+                .filter(Objects::nonNull)
+                .map(low -> {
+                    conversionAuditor.record(request.getFrom(), request.getTo(), request.getAmount(), low, Source.UPSTREAM);
+                    return ConvertCurrencyResponse.builder()
+                            .amount(request.getAmount().multiply(low))
+                            .build();
+                })
+                .onErrorMap(e -> !(e instanceof CoinNotFoundException), e -> exchangeNotFound(request))
+                .switchIfEmpty(Mono.error(() -> exchangeNotFound(request)));
+    }
+
+    private static CoinNotFoundException exchangeNotFound(ConvertCurrencyRequest request) {
+        return new CoinNotFoundException(String.format("Exchange %s not found for %s", request.getTo(), request.getFrom()));
+    }
+}
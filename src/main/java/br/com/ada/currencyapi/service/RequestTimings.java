@@ -0,0 +1,142 @@
+package br.com.ada.currencyapi.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Phase timings of the request running on the current thread. {@code ServerTimingFilter}
+ * opens one per request; outside of it {@link #time(String, Supplier)} costs a single thread-local
+ * read. Phases with the same name accumulate, so a request that runs two lookups reports one
+ * {@code db} span with their sum. Both formats list {@code db}, {@code sql}, {@code upstream} and
+ * {@code serialize} in that order, whichever finished first, then any other phase as it was recorded.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final int MAX_PHASES = 8;
+    private static final List<String> ORDER = List.of("db", "sql", "upstream", "serialize");
+
+    private final long start = System.nanoTime();
+    private final String[] names = new String[MAX_PHASES];
+    private final long[] durations = new long[MAX_PHASES];
+    private int size;
+    private long serializationStart = -1;
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T time(String phase, Supplier<T> call) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return call.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            timings.record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void add(String phase, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.record(phase, nanos);
+        }
+    }
+
+    public void record(String phase, long nanos) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(phase)) {
+                durations[i] += nanos;
+                return;
+            }
+        }
+        if (size < MAX_PHASES) {
+            names[size] = phase;
+            durations[size++] = nanos;
+        }
+    }
+
+    public void markSerialization() {
+        serializationStart = System.nanoTime();
+    }
+
+    /**
+     * Closes the {@code serialize} phase, if the body went through a message converter, and returns
+     * the time since {@link #start()}.
+     */
+    public long finish() {
+        long end = System.nanoTime();
+        if (serializationStart != -1) {
+            record("serialize", end - serializationStart);
+            serializationStart = -1;
+        }
+        return end - start;
+    }
+
+    /**
+     * Formats the phases as a {@code Server-Timing} header value, followed by {@code total}.
+     */
+    public String toHeader(long total) {
+        StringBuilder header = new StringBuilder();
+        for (int i : order()) {
+            header.append(names[i]).append(";dur=").append(millis(durations[i])).append(", ");
+        }
+        return header.append("total;dur=").append(millis(total)).toString();
+    }
+
+    /**
+     * Formats the phases as {@code key=value} pairs for the slow request log.
+     */
+    public String toLog() {
+        StringBuilder log = new StringBuilder();
+        for (int i : order()) {
+            if (!log.isEmpty()) {
+                log.append(' ');
+            }
+            log.append(names[i]).append("_ms=").append(millis(durations[i]));
+        }
+        return log.toString();
+    }
+
+    /**
+     * Indexes of the recorded phases, known ones first in {@link #ORDER}.
+     */
+    private int[] order() {
+        int[] order = new int[size];
+        int next = 0;
+        for (String known : ORDER) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(known)) {
+                    order[next++] = i;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (!ORDER.contains(names[i])) {
+                order[next++] = i;
+            }
+        }
+        return order;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,257 @@
+package br.com.ada.currencyapi.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.ada.currencyapi.domain.ConversionAudit;
+import br.com.ada.currencyapi.domain.ConversionAudit.Source;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.ConvertedRow;
+import br.com.ada.currencyapi.exception.CurrencyException;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
+
+/**
+ * Converts a stream of {@code (from, to, amount)} rows against the local rates. Rows are read in chunks;
+ * the reading thread parses each one and looks up only the pairs it holds in one statement, then the
+ * chunk converts in parallel with the others. At most {@code window} chunks are in flight and they are
+ * written back in input order, so memory stays bounded by {@code window * chunkSize} rows whatever the
+ * size of the input or of the catalogue. Every lookup of an upload runs in one read-only repeatable-read
+ * transaction held by the reading thread, so the whole file converts against one snapshot of the rates
+ * even if a rate feed commits meanwhile. A row that cannot be converted carries its error instead of
+ * failing the stream; every converted row is audited, one batch per chunk.
+ */
+@Service
+public class StreamingConversionService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String CSV_HEADER = "from,to,amount,converted,error";
+
+    private final ExchangeJdbcRepository exchangeJdbcRepository;
+    private final ConversionAuditor conversionAuditor;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final TransactionTemplate snapshot;
+    private final int chunkSize;
+    private final int window;
+
+    public StreamingConversionService(ExchangeJdbcRepository exchangeJdbcRepository,
+                                      ConversionAuditor conversionAuditor,
+                                      ObjectMapper objectMapper,
+                                      @Qualifier("conversionExecutor") ExecutorService executor,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${currency.stream.chunk-size:1000}") int chunkSize,
+                                      @Value("${currency.stream.window:0}") int window) {
+        this.exchangeJdbcRepository = exchangeJdbcRepository;
+        this.conversionAuditor = conversionAuditor;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.chunkSize = chunkSize;
+        this.window = window > 0 ? window : 2 * Runtime.getRuntime().availableProcessors();
+    }
+
+    public void convert(InputStream input, OutputStream output, Format format) throws IOException {
+        try {
+            snapshot.executeWithoutResult(status -> {
+                try {
+                    stream(input, output, format);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void stream(InputStream input, OutputStream output, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        Deque<Future<List<String>>> inFlight = new ArrayDeque<>();
+
+        try {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            List<String> chunk = new ArrayList<>(chunkSize);
+            boolean first = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (first && format == Format.CSV && line.trim().toLowerCase().startsWith("from")) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+
+                chunk.add(line);
+                if (chunk.size() == chunkSize) {
+                    inFlight.add(submit(chunk, format));
+                    chunk = new ArrayList<>(chunkSize);
+                    while (inFlight.size() >= window) {
+                        write(inFlight.poll(), writer);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(chunk, format));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), writer);
+            }
+        } finally {
+            inFlight.forEach(pending -> pending.cancel(true));
+            writer.flush();
+        }
+    }
+
+    /**
+     * Parses the chunk and reads its rates on the calling thread, inside the upload's transaction, then
+     * hands conversion, formatting and auditing to the executor.
+     */
+    private Future<List<String>> submit(List<String> lines, Format format) {
+        List<ConvertCurrencyRequest> rows = new ArrayList<>(lines.size());
+        Map<String, Set<String>> pairs = new HashMap<>();
+        for (String line : lines) {
+            ConvertCurrencyRequest row = format == Format.CSV ? parseCsv(line) : parseJson(line);
+            rows.add(row);
+            if (Objects.nonNull(row.getFrom()) && Objects.nonNull(row.getTo())) {
+                pairs.computeIfAbsent(row.getFrom(), from -> new HashSet<>()).add(row.getTo());
+            }
+        }
+        Map<String, Map<String, BigDecimal>> rates = exchangeJdbcRepository.findRates(pairs);
+
+        return executor.submit(() -> {
+            List<String> converted = new ArrayList<>(rows.size());
+            List<ConversionAudit> audits = new ArrayList<>(rows.size());
+            Instant now = Instant.now();
+            for (ConvertCurrencyRequest row : rows) {
+                ConvertedRow result = convert(row, rates);
+                if (Objects.nonNull(result.converted())) {
+                    audits.add(ConversionAudit.builder()
+                            .fromCurrency(row.getFrom())
+                            .toCurrency(row.getTo())
+                            .amount(row.getAmount())
+                            .rate(rates.get(row.getFrom()).get(row.getTo()))
+                            .source(Source.STREAM)
+                            .convertedAt(now)
+                            .build());
+                }
+                converted.add(format == Format.CSV ? toCsv(result) : toJson(result));
+            }
+            conversionAuditor.recordAll(audits);
+            return converted;
+        });
+    }
+
+    private static void write(Future<List<String>> chunk, Writer writer) throws IOException {
+        try {
+            for (String line : chunk.get()) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (ExecutionException e) {
+            throw new CurrencyException("Conversion failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CurrencyException("Conversion interrupted");
+        }
+    }
+
+    private static ConvertedRow convert(ConvertCurrencyRequest row, Map<String, Map<String, BigDecimal>> rates) {
+        if (Objects.isNull(row.getFrom()) || Objects.isNull(row.getTo()) || Objects.isNull(row.getAmount())) {
+            return new ConvertedRow(row.getFrom(), row.getTo(), row.getAmount(), null, "Invalid row");
+        }
+
+        Map<String, BigDecimal> exchanges = rates.get(row.getFrom());
+        if (Objects.isNull(exchanges)) {
+            return new ConvertedRow(row.getFrom(), row.getTo(), row.getAmount(), null,
+                    String.format("Coin not found: %s", row.getFrom()));
+        }
+
+        BigDecimal exchange = exchanges.get(row.getTo());
+        if (Objects.isNull(exchange)) {
+            return new ConvertedRow(row.getFrom(), row.getTo(), row.getAmount(), null,
+                    String.format("Exchange %s not found for %s", row.getTo(), row.getFrom()));
+        }
+
+        return new ConvertedRow(row.getFrom(), row.getTo(), row.getAmount(), row.getAmount().multiply(exchange), null);
+    }
+
+    private static ConvertCurrencyRequest parseCsv(String line) {
+        String[] fields = line.split(",", -1);
+        ConvertCurrencyRequest row = new ConvertCurrencyRequest();
+        if (fields.length >= 3) {
+            row.setFrom(fields[0].trim());
+            row.setTo(fields[1].trim());
+            try {
+                row.setAmount(new BigDecimal(fields[2].trim()));
+            } catch (NumberFormatException e) {
+                row.setAmount(null);
+            }
+        }
+        return row;
+    }
+
+    private ConvertCurrencyRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ConvertCurrencyRequest.class);
+        } catch (IOException e) {
+            return new ConvertCurrencyRequest();
+        }
+    }
+
+    private static String toCsv(ConvertedRow row) {
+        return String.join(",",
+                Objects.toString(row.from(), ""),
+                Objects.toString(row.to(), ""),
+                Objects.isNull(row.amount()) ? "" : row.amount().toPlainString(),
+                Objects.isNull(row.converted()) ? "" : row.converted().toPlainString(),
+                Objects.toString(row.error(), ""));
+    }
+
+    private String toJson(ConvertedRow row) throws IOException {
+        return objectMapper.writeValueAsString(row);
+    }
+}
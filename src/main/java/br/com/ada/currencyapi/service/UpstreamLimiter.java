@@ -0,0 +1,173 @@
+package br.com.ada.currencyapi.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import br.com.ada.currencyapi.config.UpstreamLimiterProperties;
+import br.com.ada.currencyapi.exception.UpstreamRateLimitException;
+import br.com.ada.currencyapi.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Token bucket in front of the quote API. Callers that find no token wait in a queue ordered by
+ * {@link UpstreamPriority} and arrival; a caller whose estimated wait already exceeds its priority's
+ * timeout is rejected on arrival instead of occupying a queue slot it cannot use.
+ */
+@Component
+@EnableConfigurationProperties(UpstreamLimiterProperties.class)
+public class UpstreamLimiter {
+
+    private final UpstreamLimiterProperties properties;
+    private final double permitsPerNano;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Map<UpstreamPriority, Timer> waitTimers = new EnumMap<>(UpstreamPriority.class);
+    private final MeterRegistry meterRegistry;
+
+    private double tokens;
+    private long lastRefill;
+    private long sequence;
+
+    public UpstreamLimiter(UpstreamLimiterProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.permitsPerNano = properties.getPermitsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = properties.getBurst();
+        this.lastRefill = System.nanoTime();
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("currency.upstream.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Callers waiting for an upstream quote permit")
+                .register(meterRegistry);
+        for (UpstreamPriority priority : UpstreamPriority.values()) {
+            waitTimers.put(priority, Timer.builder("currency.upstream.wait")
+                    .description("Time spent waiting for an upstream quote permit")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void acquire(UpstreamPriority priority) throws UpstreamRateLimitException, UpstreamUnavailableException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeout(priority).toNanos();
+
+        lock.lock();
+        try {
+            refill(start);
+            if (waiters.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                waitTimers.get(priority).record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            if (waiters.size() >= properties.getMaxQueue()) {
+                throw shed(priority, "queue_full",
+                        new UpstreamUnavailableException("Quote API queue is full, try again later"));
+            }
+
+            long estimatedWait = estimateWait(priority);
+            if (start + estimatedWait - deadline > 0) {
+                throw shed(priority, "deadline",
+                        new UpstreamRateLimitException("Quote API rate limit reached, try again later", Duration.ofNanos(estimatedWait)));
+            }
+
+            Waiter waiter = new Waiter(priority, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            queueDepth.incrementAndGet();
+            try {
+                awaitPermit(waiter, deadline);
+            } finally {
+                waiters.remove(waiter);
+                queueDepth.decrementAndGet();
+                signalHead();
+            }
+            waitTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitPermit(Waiter waiter, long deadline) {
+        while (true) {
+            long now = System.nanoTime();
+            refill(now);
+            boolean head = waiters.peek() == waiter;
+            if (head && tokens >= 1) {
+                tokens -= 1;
+                return;
+            }
+
+            long remaining = deadline - now;
+            if (remaining <= 0) {
+                throw shed(waiter.priority(), "timeout",
+                        new UpstreamRateLimitException("Quote API rate limit reached, try again later", Duration.ofNanos(estimateWait(waiter.priority()))));
+            }
+
+            long untilToken = head ? (long) Math.ceil((1 - tokens) / permitsPerNano) : remaining;
+            try {
+                waiter.condition().awaitNanos(Math.min(remaining, Math.max(untilToken, 1)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UpstreamUnavailableException("Interrupted while waiting for the quote API");
+            }
+        }
+    }
+
+    /**
+     * Time until enough tokens accrue for everyone queued at the same or higher priority, plus this caller.
+     */
+    private long estimateWait(UpstreamPriority priority) {
+        long ahead = waiters.stream().filter(w -> w.priority().compareTo(priority) <= 0).count();
+        double deficit = ahead + 1 - tokens;
+        return deficit <= 0 ? 0 : (long) Math.ceil(deficit / permitsPerNano);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(properties.getBurst(), tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+
+    private void signalHead() {
+        Waiter head = waiters.peek();
+        if (head != null) {
+            head.condition().signal();
+        }
+    }
+
+    private <E extends RuntimeException> E shed(UpstreamPriority priority, String reason, E exception) {
+        Counter.builder("currency.upstream.shed")
+                .description("Upstream quote calls rejected by the limiter")
+                .tag("priority", priority.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return exception;
+    }
+
+    private Duration timeout(UpstreamPriority priority) {
+        return priority == UpstreamPriority.INTERACTIVE
+                ? properties.getInteractiveTimeout()
+                : properties.getBackgroundTimeout();
+    }
+
+    private record Waiter(UpstreamPriority priority, long sequence, Condition condition) {
+    }
+}
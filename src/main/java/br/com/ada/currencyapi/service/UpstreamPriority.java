@@ -0,0 +1,33 @@
+package br.com.ada.currencyapi.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority of a call to the quote API. Calls are {@link #INTERACTIVE} unless made inside
+ * {@link #background(Supplier)}, which refresh jobs use so they queue behind user requests.
+ */
+public enum UpstreamPriority {
+
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<UpstreamPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static UpstreamPriority current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T with(UpstreamPriority priority, Supplier<T> call) {
+        UpstreamPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T background(Supplier<T> call) {
+        return with(BACKGROUND, call);
+    }
+}
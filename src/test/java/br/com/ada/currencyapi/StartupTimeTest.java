@@ -0,0 +1,45 @@
+package br.com.ada.currencyapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Measures time to a serving context. Compare modes with {@code mvn -Pbenchmark test} (JVM),
+ * {@code mvn -Paot,benchmark test} with {@code -Dspring.aot.enabled=true} (AOT on the JVM) and
+ * {@code mvn -PnativeTest,benchmark test} (native image). Budget defaults to 30s, override with
+ * {@code -Dstartup.budget=PT2S}.
+ */
+@Tag("benchmark")
+class StartupTimeTest {
+
+	@Test
+	void startsWithinBudget() {
+		Duration budget = Duration.parse(System.getProperty("startup.budget", "PT30S"));
+
+		long start = System.nanoTime();
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CurrencyApiApplication.class)
+				.run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:startupdb;DB_CLOSE_DELAY=-1")) {
+			Duration startup = Duration.ofNanos(System.nanoTime() - start);
+
+			System.out.printf("startup mode=%s time=%dms%n", mode(), startup.toMillis());
+			assertThat(context.isActive()).isTrue();
+			assertThat(startup).isLessThan(budget);
+		}
+	}
+
+	private static String mode() {
+		if (NativeDetector.inNativeImage()) {
+			return "native";
+		}
+		return AotDetector.useGeneratedArtifacts() ? "jvm-aot" : "jvm";
+	}
+
+}
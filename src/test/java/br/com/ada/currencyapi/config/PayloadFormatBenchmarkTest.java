@@ -0,0 +1,76 @@
+package br.com.ada.currencyapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
+import br.com.ada.currencyapi.domain.CurrencyResponse;
+
+/**
+ * Payload size and encode/decode cost of the negotiated formats for the conversion and listing responses.
+ */
+@Tag("benchmark")
+public class PayloadFormatBenchmarkTest {
+
+    private static final int ITEMS = 10_000;
+    private static final int ROUNDS = 50;
+
+    private static final Map<String, ObjectMapper> MAPPERS = Map.of(
+            "json", new ObjectMapper(),
+            "cbor", new CBORMapper(),
+            "smile", new SmileMapper());
+
+    private final List<ConvertCurrencyResponse> conversions = IntStream.range(0, ITEMS)
+            .mapToObj(i -> new ConvertCurrencyResponse(new BigDecimal("%d.%06d".formatted(i, i * 37 % 1_000_000))))
+            .toList();
+
+    private final List<CurrencyResponse> currencies = IntStream.range(0, ITEMS)
+            .mapToObj(i -> new CurrencyResponse("%d - C%05d".formatted(i, i)))
+            .toList();
+
+    @Test
+    void compareFormats() throws Exception {
+        for (String format : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = MAPPERS.get(format);
+            measure(format, "convert", mapper, conversions, new TypeReference<List<ConvertCurrencyResponse>>() {});
+            measure(format, "list", mapper, currencies, new TypeReference<List<CurrencyResponse>>() {});
+        }
+    }
+
+    private <T> void measure(String format, String payload, ObjectMapper mapper, List<T> value, TypeReference<List<T>> type) throws Exception {
+        byte[] bytes = mapper.writeValueAsBytes(value);
+        List<T> decoded = mapper.readValue(bytes, type);
+        assertThat(mapper.writeValueAsBytes(decoded)).isEqualTo(bytes);
+
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(value), type);
+        }
+
+        long encode = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.writeValueAsBytes(value);
+        }
+        encode = System.nanoTime() - encode;
+
+        long decode = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readValue(bytes, type);
+        }
+        decode = System.nanoTime() - decode;
+
+        System.out.printf("payload=%s format=%s items=%d bytes=%d encodeNsPerItem=%d decodeNsPerItem=%d%n",
+                payload, format, ITEMS, bytes.length, encode / ROUNDS / ITEMS, decode / ROUNDS / ITEMS);
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.ada.currencyapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.domain.CurrencyRequest;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.service.CurrencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimarydb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "currency.datasource.replica.enabled=true",
+        "currency.datasource.replica.url=jdbc:h2:mem:routingreplicadb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "currency.datasource.replica.username=sa",
+        "currency.datasource.replica.lag-query=select seconds from replica_status",
+        "currency.datasource.replica.max-lag=5s",
+        "currency.datasource.replica.lag-check-interval=0s",
+        // one slot the drainer looks at hourly: past the first conversion, audits are written by the caller
+        "currency.audit.capacity=1",
+        "currency.audit.flush-interval=1h",
+        "currency.audit.overflow=caller-runs"
+})
+public class ReadWriteRoutingDataSourceIntegrationTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table if not exists replica_status (seconds numeric)");
+        replica.execute("create table if not exists currency (id bigint primary key, name varchar(255), description varchar(255))");
+        replica.execute("create table if not exists exchanges (currency_id bigint not null, currency_name varchar(255) not null, "
+                + "exchanges numeric(38,2), primary key (currency_id, currency_name))");
+        replica.update("insert into replica_status (seconds) values (0)");
+        replica.update("insert into currency (id, name) values (1000, 'USD')");
+        replica.update("insert into exchanges (currency_id, currency_name, exchanges) values (1000, 'EUR', 3.00)");
+
+        currencyRepository.save(Currency.builder().name("USD").exchanges(new HashMap<>(Map.of("EUR", BigDecimal.valueOf(2.0)))).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.execute("delete from exchanges");
+        replica.execute("delete from currency");
+        replica.execute("delete from replica_status");
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyConversionReadsFromReplica() {
+        assertThat(convertUsdToEur()).isEqualByComparingTo("3.00");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replica.update("update replica_status set seconds = 30");
+
+        assertThat(convertUsdToEur()).isEqualByComparingTo("2.00");
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        currencyService.create(CurrencyRequest.builder().name("JPY").exchanges(new HashMap<>()).build());
+
+        assertThat(new JdbcTemplate(primaryDataSource).queryForObject(
+                "select count(*) from currency where name = 'JPY'", Integer.class)).isEqualTo(1);
+        assertThat(replica.queryForObject(
+                "select count(*) from currency where name = 'JPY'", Integer.class)).isZero();
+    }
+
+    @Test
+    void callerRunsAuditOfReadOnlyConversionGoesToPrimary() {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        int before = primary.queryForObject("select count(*) from conversion_audit", Integer.class);
+
+        convertUsdToEur();
+        convertUsdToEur();
+
+        // the replica has no audit table, so a write on the conversion's connection would be dropped
+        assertThat(primary.queryForObject("select count(*) from conversion_audit", Integer.class)).isGreaterThan(before);
+        assertThat(meterRegistry.get("currency.audit.dropped").counter().count()).isZero();
+    }
+
+    private BigDecimal convertUsdToEur() {
+        return currencyService.convert(ConvertCurrencyRequest.builder()
+                .from("USD")
+                .to("EUR")
+                .amount(BigDecimal.ONE)
+                .build()).getAmount();
+    }
+}
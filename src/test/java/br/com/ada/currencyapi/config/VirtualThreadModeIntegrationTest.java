@@ -0,0 +1,58 @@
+package br.com.ada.currencyapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "currency.threads.pinned-threshold=10ms"
+})
+public class VirtualThreadModeIntegrationTest {
+
+    @Autowired
+    @Qualifier("quoteExecutor")
+    private ExecutorService quoteExecutor;
+
+    @Autowired
+    @Qualifier("conversionExecutor")
+    private ExecutorService conversionExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void upstreamCallsRunOnVirtualThreads() throws Exception {
+        assertThat(quoteExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void cpuBoundConversionsKeepPlatformThreads() throws Exception {
+        assertThat(conversionExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    void pinnedVirtualThreadsAreCounted() throws Exception {
+        Object monitor = new Object();
+        quoteExecutor.submit(() -> {
+            synchronized (monitor) {
+                Thread.sleep(50);
+            }
+            return null;
+        }).get(5, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.counter("currency.threads.pinned").count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(meterRegistry.counter("currency.threads.pinned").count()).isPositive();
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.ada.currencyapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.domain.CurrencyResponse;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ContentNegotiationIntegrationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @BeforeEach
+    void setUp() {
+        currencyRepository.deleteAll();
+        currencyRepository.save(new Currency(null, "BRL", "Real", Map.of("USD", new BigDecimal("0.19"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void convertAsCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/currency/convert?from=BRL&to=USD&amount=10.005").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ConvertCurrencyResponse response = new CBORMapper().readValue(body, ConvertCurrencyResponse.class);
+        assertThat(response.getAmount()).isEqualTo(new BigDecimal("1.90095"));
+    }
+
+    @Test
+    void convertAsSmile() throws Exception {
+        byte[] body = mockMvc.perform(get("/currency/convert?from=BRL&to=USD&amount=10.005").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ConvertCurrencyResponse response = new SmileMapper().readValue(body, ConvertCurrencyResponse.class);
+        assertThat(response.getAmount()).isEqualTo(new BigDecimal("1.90095"));
+    }
+
+    @Test
+    void listAsCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/currency").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<CurrencyResponse> response = new CBORMapper().readValue(body, new TypeReference<>() {});
+        assertThat(response).hasSize(1);
+        assertThat(response.get(0).getLabel()).endsWith(" - BRL");
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/currency/convert?from=BRL&to=USD&amount=1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.ada.currencyapi.controller;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesRegex;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -8,15 +9,24 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.sql.DataSource;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -26,6 +36,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import br.com.ada.currencyapi.domain.Currency;
 import br.com.ada.currencyapi.domain.CurrencyRequest;
 import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.service.StreamingConversionService;
+import br.com.ada.currencyapi.service.StreamingConversionService.Format;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
 @AutoConfigureMockMvc
@@ -37,6 +49,12 @@ public class CurrencyControllerIntegrationTest {
     @Autowired
     private CurrencyRepository currencyRepository;
 
+    @Autowired
+    private StreamingConversionService streamingConversionService;
+
+    @Autowired
+    private DataSource dataSource;
+
     @Test
     void testGetCurrencyReturns200() throws Exception {
         assertEquals(0, currencyRepository.count());
@@ -137,7 +155,59 @@ public class CurrencyControllerIntegrationTest {
         currencyRepository.deleteAll();
     }
 
+    @Test
+    void testConvertStreamLooksUpEachChunk() throws Exception {
+        currencyRepository.save(new Currency(null, "BRL", "BRL", Map.of("USD", new BigDecimal("0.2"), "EUR", new BigDecimal("0.18"))));
+        currencyRepository.save(new Currency(null, "USD", "USD", Map.of("BRL", new BigDecimal("5"))));
+
+        MvcResult result = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/currency/convert/stream")
+                                .contentType("text/csv")
+                                .content("BRL,USD,10\nUSD,BRL,2\nUSD,EUR,1\nETH,BRL,1\nBRL,EUR,100\n")
+                )
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
 
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isOk())
+                // converted amounts take the scale of the stored rate
+                .andExpect(MockMvcResultMatchers.content().string(matchesRegex("from,to,amount,converted,error\n"
+                        + "BRL,USD,10,2(\\.0+)?,\n"
+                        + "USD,BRL,2,10(\\.0+)?,\n"
+                        + "USD,EUR,1,,Exchange EUR not found for USD\n"
+                        + "ETH,BRL,1,,Coin not found: ETH\n"
+                        + "BRL,EUR,100,18(\\.0+)?,\n")))
+                .andDo(print());
+
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void testConvertStreamUsesOneRateSnapshot() throws Exception {
+        currencyRepository.save(new Currency(null, "BRL", "BRL", Map.of("USD", new BigDecimal("0.2"))));
+        JdbcTemplate feed = new JdbcTemplate(dataSource);
+        // 3000 rows in chunks of 1000; the rate changes once the first two, and the reader's buffer, have been read
+        InputStream input = new InputStream() {
+            private final byte[] row = "BRL,USD,1\n".getBytes(StandardCharsets.UTF_8);
+            private int position;
+
+            @Override
+            public int read() {
+                if (position == 2_500 * row.length) {
+                    CompletableFuture.runAsync(() -> feed.update("update exchanges set exchanges = 0.3 where currency_name = 'USD'")).join();
+                }
+                return position < 3_000 * row.length ? row[position++ % row.length] : -1;
+            }
+        };
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        streamingConversionService.convert(input, output, Format.CSV);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3_001, lines.length);
+        assertEquals(1, Arrays.stream(lines).skip(1).map(line -> line.split(",")[3]).distinct().count());
+        currencyRepository.deleteAll();
+    }
 
     @Test
     void testDeleteReturns200() throws Exception {
@@ -151,4 +221,43 @@ public class CurrencyControllerIntegrationTest {
                 .andDo(print());
     }
 
+    @Test
+    void testBulkDeleteReturns200() throws Exception {
+        assertEquals(0, currencyRepository.count());
+
+        Currency brl = currencyRepository.save(new Currency(null, "BRL", "BRL", Map.of("USD", new BigDecimal("0.19"))));
+        currencyRepository.save(new Currency(null, "USD", "USD", Map.of("BRL", new BigDecimal("5.2"))));
+        currencyRepository.save(new Currency(null, "EUR", "EUR", null));
+
+        mockMvc.perform(
+                        delete("/currency").param("ids", String.valueOf(brl.getId())).param("names", "USD")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(2))
+                .andDo(print());
+
+        assertEquals(1, currencyRepository.count());
+        assertEquals("EUR", currencyRepository.findAll().get(0).getName());
+
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void testBulkDeleteReturns404AndKeepsEverything() throws Exception {
+        assertEquals(0, currencyRepository.count());
+
+        currencyRepository.save(new Currency(null, "BRL", "BRL", Map.of("USD", new BigDecimal("0.19"))));
+
+        mockMvc.perform(
+                        delete("/currency").param("names", "BRL", "XXX")
+                )
+                .andExpect(status().isNotFound())
+                .andDo(print());
+
+        assertEquals(1, currencyRepository.count());
+        assertEquals(1, currencyRepository.findByName("BRL").getExchanges().size());
+
+        currencyRepository.deleteAll();
+    }
+
 }
@@ -4,7 +4,10 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -20,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -27,7 +31,13 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import br.com.ada.currencyapi.exception.RestExceptionHandler;
+import br.com.ada.currencyapi.exception.UpstreamRateLimitException;
+import br.com.ada.currencyapi.service.ConversionAuditor;
 import br.com.ada.currencyapi.service.CurrencyService;
+import br.com.ada.currencyapi.service.PairUsageStats;
+import br.com.ada.currencyapi.service.RateFeedService;
+import br.com.ada.currencyapi.service.StreamingConversionService;
 @AutoConfigureMockMvc
 @ExtendWith(MockitoExtension.class)
 public class CurrencyControllerUnitTest {
@@ -35,6 +45,18 @@ public class CurrencyControllerUnitTest {
     @Mock
     private CurrencyService currencyService;
 
+    @Mock
+    private RateFeedService rateFeedService;
+
+    @Mock
+    private StreamingConversionService streamingConversionService;
+
+    @Mock
+    private ConversionAuditor conversionAuditor;
+
+    @Mock
+    private PairUsageStats pairUsageStats;
+
     @InjectMocks
     private CurrencyController currencyController;
 
@@ -110,6 +132,102 @@ public class CurrencyControllerUnitTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    void ConvertAPI() throws Exception {
+        Mockito.when(currencyService.convertAPI(Mockito.any(ConvertCurrencyRequest.class))).thenReturn(new ConvertCurrencyResponse(BigDecimal.TEN));
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/currency/convert/api?from=USD&to=EUR&amount=1")
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.amount").value(BigDecimal.TEN))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    void Audit() throws Exception {
+        Mockito.when(conversionAuditor.search("USD", null, Instant.parse("2024-01-01T00:00:00Z"), null, 10))
+                .thenReturn(List.of(ConversionAuditResponse.builder()
+                        .id(1L)
+                        .from("USD")
+                        .to("EUR")
+                        .amount(BigDecimal.ONE)
+                        .rate(new BigDecimal("0.9"))
+                        .source("LOCAL")
+                        .build()));
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/currency/audit?from=USD&since=2024-01-01T00:00:00Z&limit=10")
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].to").value("EUR"))
+                .andExpect(jsonPath("$[0].rate").value(0.9))
+                .andExpect(jsonPath("$[0].source").value("LOCAL"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    void TopPairs() throws Exception {
+        Mockito.when(pairUsageStats.top(Duration.ofMinutes(1), 2))
+                .thenReturn(List.of(PairUsageResponse.builder()
+                        .from("USD")
+                        .to("BRL")
+                        .count(42)
+                        .perSecond(0.7)
+                        .p50Millis(1.25)
+                        .p99Millis(5)
+                        .build()));
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/currency/stats/top?window=1m&limit=2")
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].from").value("USD"))
+                .andExpect(jsonPath("$[0].count").value(42))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    void ConvertAPIRateLimited() throws Exception {
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(currencyController)
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+        Mockito.when(currencyService.convertAPI(Mockito.any(ConvertCurrencyRequest.class)))
+                .thenThrow(new UpstreamRateLimitException("Quote API rate limit reached, try again later", Duration.ofSeconds(3)));
+
+        mockMvcWithAdvice.perform(
+                        MockMvcRequestBuilders.get("/currency/convert/api?from=USD&to=EUR&amount=1")
+                )
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "3"))
+                .andExpect(jsonPath("$").value("Quote API rate limit reached, try again later"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    void ConvertStream() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            ((OutputStream) invocation.getArgument(1)).write("from,to,amount,converted,error\n".getBytes());
+            return null;
+        }).when(streamingConversionService).convert(Mockito.any(), Mockito.any(), Mockito.eq(StreamingConversionService.Format.CSV));
+
+        MvcResult result = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/currency/convert/stream")
+                                .contentType("text/csv")
+                                .content("USD,BRL,10\n")
+                )
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("text/csv"))
+                .andExpect(MockMvcResultMatchers.content().string("from,to,amount,converted,error\n"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     @Test
     void Create() throws Exception {
         CurrencyRequest request = new CurrencyRequest();
@@ -143,6 +261,38 @@ public class CurrencyControllerUnitTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    void UpdateRates() throws Exception {
+        List<RateUpdateRequest> request = List.of(
+                new RateUpdateRequest("USD", "BRL", new BigDecimal("5.10")),
+                new RateUpdateRequest("USD", "EUR", new BigDecimal("0.92")));
+
+        Mockito.when(rateFeedService.update(Mockito.anyList())).thenReturn(2);
+        var content = objectMapper.writeValueAsString(request);
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.put("/currency/rates")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(content)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$").value(2))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    void DeleteAll() throws Exception {
+        Mockito.when(currencyService.delete(List.of(1L, 2L), List.of("USD"))).thenReturn(3);
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.delete("/currency?ids=1,2&names=USD")
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$").value(3))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     @Test
     void Delete() throws Exception {
         Mockito.doNothing().when(currencyService).delete(anyLong());
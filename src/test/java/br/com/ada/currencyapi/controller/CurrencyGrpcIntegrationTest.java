@@ -0,0 +1,121 @@
+package br.com.ada.currencyapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.grpc.ConversionError;
+import br.com.ada.currencyapi.grpc.ConvertReply;
+import br.com.ada.currencyapi.grpc.ConvertRequest;
+import br.com.ada.currencyapi.grpc.CurrencyConversionGrpc;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.stub.StreamObserver;
+
+@SpringBootTest(properties = "currency.grpc.in-process-name=currency-grpc-integration-test")
+public class CurrencyGrpcIntegrationTest {
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setup() {
+        currencyRepository.deleteAll();
+        currencyRepository.save(Currency.builder()
+                .name("USD")
+                .exchanges(Map.of("BRL", new BigDecimal("5.00"), "EUR", new BigDecimal("0.90")))
+                .build());
+        channel = InProcessChannelBuilder.forName("currency-grpc-integration-test").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void convertUsesLocalRates() {
+        ConvertReply reply = CurrencyConversionGrpc.newBlockingStub(channel).convert(ConvertRequest.newBuilder()
+                .setId("1")
+                .setFrom("USD")
+                .setTo("BRL")
+                .setAmount("2")
+                .build());
+
+        assertThat(new BigDecimal(reply.getAmount())).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void convertUnknownCoinIsNotFound() {
+        assertThatThrownBy(() -> CurrencyConversionGrpc.newBlockingStub(channel).convert(ConvertRequest.newBuilder()
+                .setFrom("XXX")
+                .setTo("BRL")
+                .setAmount("2")
+                .build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+                    assertThat(e.getStatus().getDescription()).isEqualTo("Coin not found: XXX");
+                });
+    }
+
+    @Test
+    void streamConvertOverOneCall() throws Exception {
+        List<ConvertReply> replies = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        StreamObserver<ConvertRequest> requests = CurrencyConversionGrpc.newStub(channel).streamConvert(new StreamObserver<>() {
+            @Override
+            public void onNext(ConvertReply reply) {
+                replies.add(reply);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+        });
+
+        for (int i = 0; i < 500; i++) {
+            requests.onNext(ConvertRequest.newBuilder()
+                    .setId(String.valueOf(i))
+                    .setFrom("USD")
+                    .setTo(i % 2 == 0 ? "BRL" : "JPY")
+                    .setAmount("1")
+                    .build());
+        }
+        requests.onCompleted();
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(replies).hasSize(500);
+        assertThat(replies).filteredOn(reply -> Integer.parseInt(reply.getId()) % 2 == 0)
+                .allSatisfy(reply -> assertThat(new BigDecimal(reply.getAmount())).isEqualByComparingTo("5"));
+        assertThat(replies).filteredOn(reply -> Integer.parseInt(reply.getId()) % 2 == 1)
+                .allSatisfy(reply -> {
+                    assertThat(reply.getError().getCode()).isEqualTo(ConversionError.Code.NOT_FOUND);
+                    assertThat(reply.getError().getMessage()).isEqualTo("Exchange JPY not found for USD");
+                });
+    }
+}
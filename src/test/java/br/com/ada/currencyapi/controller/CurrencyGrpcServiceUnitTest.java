@@ -0,0 +1,292 @@
+package br.com.ada.currencyapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.ada.currencyapi.config.GrpcProperties;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.exception.UpstreamRateLimitException;
+import br.com.ada.currencyapi.grpc.BatchConvertReply;
+import br.com.ada.currencyapi.grpc.BatchConvertRequest;
+import br.com.ada.currencyapi.grpc.ConversionError;
+import br.com.ada.currencyapi.grpc.ConvertReply;
+import br.com.ada.currencyapi.grpc.ConvertRequest;
+import br.com.ada.currencyapi.grpc.CurrencyConversionGrpc;
+import br.com.ada.currencyapi.service.CurrencyService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrencyGrpcServiceUnitTest {
+
+    private static final int WINDOW = 4;
+
+    @Mock
+    private CurrencyService currencyService;
+
+    private ExecutorService executor;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setup() throws Exception {
+        GrpcProperties properties = new GrpcProperties();
+        properties.setMaxBatchSize(3);
+        properties.setWindow(WINDOW);
+        executor = Executors.newCachedThreadPool();
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new CurrencyGrpcService(currencyService, executor, properties))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void convert() {
+        Mockito.when(currencyService.convert(Mockito.any(ConvertCurrencyRequest.class)))
+                .thenReturn(new ConvertCurrencyResponse(new BigDecimal("5.10")));
+
+        ConvertReply reply = CurrencyConversionGrpc.newBlockingStub(channel)
+                .convert(request("1", "USD", "BRL", "1"));
+
+        assertThat(reply.getId()).isEqualTo("1");
+        assertThat(reply.getAmount()).isEqualTo("5.10");
+        assertThat(reply.hasError()).isFalse();
+    }
+
+    @Test
+    void convertUpstream() {
+        Mockito.when(currencyService.convertAPI(Mockito.any(ConvertCurrencyRequest.class)))
+                .thenReturn(new ConvertCurrencyResponse(BigDecimal.TEN));
+
+        ConvertReply reply = CurrencyConversionGrpc.newBlockingStub(channel)
+                .convert(request("1", "USD", "BRL", "2").toBuilder().setUpstream(true).build());
+
+        assertThat(reply.getAmount()).isEqualTo("10");
+        Mockito.verify(currencyService, Mockito.never()).convert(Mockito.any());
+    }
+
+    @Test
+    void convertNotFound() {
+        Mockito.when(currencyService.convert(Mockito.any(ConvertCurrencyRequest.class)))
+                .thenThrow(new CoinNotFoundException("Coin not found: XXX"));
+
+        assertThatThrownBy(() -> CurrencyConversionGrpc.newBlockingStub(channel).convert(request("1", "XXX", "BRL", "1")))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+                    assertThat(e.getStatus().getDescription()).isEqualTo("Coin not found: XXX");
+                });
+    }
+
+    @Test
+    void convertInvalidAmount() {
+        assertThatThrownBy(() -> CurrencyConversionGrpc.newBlockingStub(channel).convert(request("1", "USD", "BRL", "ten")))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+                    assertThat(e.getStatus().getDescription()).isEqualTo("Invalid amount: ten");
+                });
+        Mockito.verifyNoInteractions(currencyService);
+    }
+
+    @Test
+    void convertRateLimited() {
+        Mockito.when(currencyService.convertAPI(Mockito.any(ConvertCurrencyRequest.class)))
+                .thenThrow(new UpstreamRateLimitException("Quote API rate limit reached, try again later", Duration.ofSeconds(3)));
+
+        assertThatThrownBy(() -> CurrencyConversionGrpc.newBlockingStub(channel)
+                .convert(request("1", "USD", "BRL", "1").toBuilder().setUpstream(true).build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+                    assertThat(e.getTrailers().get(CurrencyGrpcService.RETRY_AFTER)).isEqualTo("3");
+                });
+    }
+
+    @Test
+    void batchConvertKeepsOrderAndPerItemErrors() {
+        Mockito.when(currencyService.convert(Mockito.any(ConvertCurrencyRequest.class))).thenAnswer(invocation -> {
+            ConvertCurrencyRequest conversion = invocation.getArgument(0);
+            if (conversion.getFrom().equals("XXX")) {
+                throw new CoinNotFoundException("Coin not found: XXX");
+            }
+            return new ConvertCurrencyResponse(conversion.getAmount().multiply(BigDecimal.TEN));
+        });
+
+        BatchConvertReply reply = CurrencyConversionGrpc.newBlockingStub(channel).batchConvert(BatchConvertRequest.newBuilder()
+                .addRequests(request("a", "USD", "BRL", "1"))
+                .addRequests(request("b", "XXX", "BRL", "2"))
+                .addRequests(request("c", "USD", "BRL", "3"))
+                .build());
+
+        assertThat(reply.getRepliesList()).extracting(ConvertReply::getId).containsExactly("a", "b", "c");
+        assertThat(reply.getReplies(0).getAmount()).isEqualTo("10");
+        assertThat(reply.getReplies(1).getError().getCode()).isEqualTo(ConversionError.Code.NOT_FOUND);
+        assertThat(reply.getReplies(1).getAmount()).isEmpty();
+        assertThat(reply.getReplies(2).getAmount()).isEqualTo("30");
+    }
+
+    @Test
+    void batchConvertTooLarge() {
+        BatchConvertRequest.Builder batch = BatchConvertRequest.newBuilder();
+        for (int i = 0; i < 4; i++) {
+            batch.addRequests(request(String.valueOf(i), "USD", "BRL", "1"));
+        }
+
+        assertThatThrownBy(() -> CurrencyConversionGrpc.newBlockingStub(channel).batchConvert(batch.build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+        Mockito.verifyNoInteractions(currencyService);
+    }
+
+    @Test
+    void streamConvertAnswersEveryRequest() throws Exception {
+        Mockito.when(currencyService.convert(Mockito.any(ConvertCurrencyRequest.class))).thenAnswer(invocation -> {
+            ConvertCurrencyRequest conversion = invocation.getArgument(0);
+            if (conversion.getTo().equals("XXX")) {
+                throw new CoinNotFoundException("Exchange XXX not found for USD");
+            }
+            return new ConvertCurrencyResponse(conversion.getAmount());
+        });
+
+        Replies replies = new Replies();
+        StreamObserver<ConvertRequest> requests = CurrencyConversionGrpc.newStub(channel).streamConvert(replies);
+        for (int i = 0; i < 100; i++) {
+            requests.onNext(request(String.valueOf(i), "USD", i % 10 == 0 ? "XXX" : "BRL", String.valueOf(i)));
+        }
+        requests.onCompleted();
+
+        assertThat(replies.await()).isTrue();
+        assertThat(replies.error).isNull();
+        assertThat(replies.replies).hasSize(100);
+        assertThat(replies.replies).extracting(ConvertReply::getId)
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 100).mapToObj(String::valueOf).toList());
+        assertThat(replies.replies).filteredOn(ConvertReply::hasError).hasSize(10)
+                .allSatisfy(reply -> assertThat(reply.getError().getCode()).isEqualTo(ConversionError.Code.NOT_FOUND));
+        assertThat(replies.replies).filteredOn(reply -> reply.getId().equals("7"))
+                .singleElement()
+                .satisfies(reply -> assertThat(reply.getAmount()).isEqualTo("7"));
+    }
+
+    @Test
+    void streamConvertWaitsForASlowReader() throws Exception {
+        AtomicInteger conversions = new AtomicInteger();
+        Mockito.when(currencyService.convert(Mockito.any(ConvertCurrencyRequest.class))).thenAnswer(invocation -> {
+            conversions.incrementAndGet();
+            return new ConvertCurrencyResponse(BigDecimal.ONE);
+        });
+
+        // reads one reply, then only as many as the test asks for
+        SlowReplies replies = new SlowReplies();
+        StreamObserver<ConvertRequest> requests = CurrencyConversionGrpc.newStub(channel).streamConvert(replies);
+        for (int i = 0; i < 100; i++) {
+            requests.onNext(request(String.valueOf(i), "USD", "BRL", "1"));
+        }
+        requests.onCompleted();
+
+        Thread.sleep(200);
+        assertThat(conversions.get()).isLessThanOrEqualTo(WINDOW + 1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (replies.done.getCount() > 0 && System.nanoTime() < deadline) {
+            replies.call.request(1);
+            replies.done.await(1, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(replies.error).isNull();
+        assertThat(replies.replies).hasSize(100);
+        assertThat(conversions.get()).isEqualTo(100);
+    }
+
+    @Test
+    void streamConvertEmpty() throws Exception {
+        Replies replies = new Replies();
+        CurrencyConversionGrpc.newStub(channel).streamConvert(replies).onCompleted();
+
+        assertThat(replies.await()).isTrue();
+        assertThat(replies.replies).isEmpty();
+    }
+
+    private static ConvertRequest request(String id, String from, String to, String amount) {
+        return ConvertRequest.newBuilder()
+                .setId(id)
+                .setFrom(from)
+                .setTo(to)
+                .setAmount(amount)
+                .build();
+    }
+
+    private static class Replies implements StreamObserver<ConvertReply> {
+
+        final List<ConvertReply> replies = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Throwable error;
+
+        @Override
+        public synchronized void onNext(ConvertReply reply) {
+            replies.add(reply);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            done.countDown();
+        }
+
+        @Override
+        public void onCompleted() {
+            done.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return done.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static class SlowReplies extends Replies implements ClientResponseObserver<ConvertRequest, ConvertReply> {
+
+        private volatile ClientCallStreamObserver<ConvertRequest> call;
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<ConvertRequest> call) {
+            this.call = call;
+            call.disableAutoRequestWithInitial(1);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.ada.currencyapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.support.StubQuoteServer;
+
+/**
+ * Drives the reactive upstream conversion with far more concurrent callers than Tomcat has threads,
+ * against a stand-in quote API that answers after a fixed delay, and reports how many upstream
+ * calls were in flight at once.
+ */
+@Tag("benchmark")
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.threads.max=" + ReactiveConversionBenchmarkTest.SERVLET_THREADS)
+public class ReactiveConversionBenchmarkTest {
+
+    static final int SERVLET_THREADS = 16;
+    private static final int CALLERS = 256;
+    private static final Duration UPSTREAM_DELAY = Duration.ofMillis(500);
+
+    private static final StubQuoteServer upstream = StubQuoteServer.start(UPSTREAM_DELAY)
+            .quote("USD", "EUR", new BigDecimal("0.92"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @DynamicPropertySource
+    static void upstreamUrl(DynamicPropertyRegistry registry) {
+        registry.add("currency.client.url", upstream::url);
+    }
+
+    @AfterEach
+    void tearDown() {
+        currencyRepository.deleteAll();
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    void inFlightUpstreamCallsExceedServletThreads() {
+        currencyRepository.save(Currency.builder().name("USD").exchanges(new HashMap<>()).build());
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:%d/reactive/currency/convert/api?from=USD&to=EUR&amount=10".formatted(port))).build();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, CALLERS)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        System.out.printf("reactive convertAPI callers=%d servletThreads=%d upstreamDelay=%dms elapsed=%dms maxInFlight=%d%n",
+                CALLERS, SERVLET_THREADS, UPSTREAM_DELAY.toMillis(), elapsed.toMillis(), upstream.maxInFlight());
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+        assertThat(upstream.maxInFlight()).isGreaterThan(SERVLET_THREADS);
+        assertThat(elapsed).isLessThan(UPSTREAM_DELAY.multipliedBy(CALLERS / SERVLET_THREADS));
+    }
+}
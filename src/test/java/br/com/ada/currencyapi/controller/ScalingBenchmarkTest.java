@@ -0,0 +1,184 @@
+package br.com.ada.currencyapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import br.com.ada.currencyapi.CurrencyApiApplication;
+import br.com.ada.currencyapi.support.DatasetGenerator;
+
+/**
+ * Latency and memory of list, convert, create and delete as the catalogue grows. Each size gets a
+ * fresh application loaded by {@link DatasetGenerator}; conversions follow its Zipf skew. Results are
+ * printed and written to {@code target/scaling-report.csv}.
+ * <p>
+ * Sizes and density come from {@code -Dscaling.sizes=1000,10000,100000}, {@code -Dscaling.exchanges=10}
+ * and {@code -Dscaling.skew=1.0}. Against a local PostgreSQL pass {@code -Dspring.datasource.url=...},
+ * the credentials, {@code -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect} and
+ * {@code -Dspring.jpa.hibernate.ddl-auto=create}; each size then replaces the catalogue in place.
+ */
+@Tag("benchmark")
+public class ScalingBenchmarkTest {
+
+    private static final int[] SIZES = Arrays.stream(System.getProperty("scaling.sizes", "1000,10000,100000").split(","))
+            .mapToInt(size -> Integer.parseInt(size.trim()))
+            .toArray();
+    private static final int EXCHANGES = Integer.getInteger("scaling.exchanges", 10);
+    private static final double SKEW = Double.parseDouble(System.getProperty("scaling.skew", "1.0"));
+    private static final int CONVERSIONS = 2_000;
+    private static final int WRITES = 200;
+    private static final Path REPORT = Path.of("target", "scaling-report.csv");
+
+    @Test
+    void scaleCatalogue() throws Exception {
+        List<Row> rows = new ArrayList<>();
+        for (int size : SIZES) {
+            rows.addAll(run(DatasetGenerator.of(size, Math.min(EXCHANGES, size - 1)).skew(SKEW)));
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add("operation,currencies,exchangesPerCurrency,loadMillis,heapAfterLoadMb,ops,p50Micros,p99Micros,allocatedBytesPerOp");
+        rows.forEach(row -> report.add(row.csv()));
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, report);
+
+        // the name index keeps conversions flat: allow noise, not linear growth
+        long smallest = p99(rows, "convert", SIZES[0]);
+        long largest = p99(rows, "convert", SIZES[SIZES.length - 1]);
+        assertThat(largest).isLessThan(Math.max(10 * smallest, 5_000));
+    }
+
+    private List<Row> run(DatasetGenerator dataset) throws Exception {
+        int size = dataset.currencies();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CurrencyApiApplication.class)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:scaling-" + size + ";DB_CLOSE_DELAY=-1",
+                        "--currency.warmup.enabled=false",
+                        "--currency.audit.enabled=false",
+                        "--currency.grpc.enabled=false")) {
+
+            long loadMillis = dataset.load(context.getBean(DataSource.class));
+            long heapMb = heapAfterGc() / (1024 * 1024);
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+            Meter meter = new Meter(dataset, loadMillis, heapMb);
+
+            // listing is linear by contract, so fewer rounds as it grows
+            int lists = (int) Math.max(3, Math.min(50, 1_000_000L / ((long) size * dataset.exchangesPerCurrency())));
+            Row list = meter.measure("list", lists, i -> mockMvc.perform(get("/currency")).andExpect(status().isOk()));
+
+            DatasetGenerator.Sampler sampler = dataset.sampler(42);
+            Row convert = meter.measure("convert", CONVERSIONS, i -> {
+                String[] pair = sampler.pair();
+                mockMvc.perform(get("/currency/convert").param("from", pair[0]).param("to", pair[1]).param("amount", "10"))
+                        .andExpect(status().isOk());
+            });
+
+            long[] created = new long[WRITES];
+            Row create = meter.measure("create", WRITES, i -> {
+                String body = mockMvc.perform(post("/currency")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(newCurrency(i, dataset, sampler)))
+                        .andExpect(status().isCreated())
+                        .andReturn().getResponse().getContentAsString();
+                created[i] = Long.parseLong(body);
+            });
+
+            Row remove = meter.measure("delete", WRITES, i -> mockMvc.perform(delete("/currency/{id}", created[i]))
+                    .andExpect(status().isOk()));
+
+            return List.of(list, convert, create, remove);
+        }
+    }
+
+    private static String newCurrency(int index, DatasetGenerator dataset, DatasetGenerator.Sampler sampler) {
+        StringBuilder body = new StringBuilder("{\"name\":\"NEW%06d\",\"description\":\"New coin\",\"exchanges\":{".formatted(index));
+        int first = sampler.currency();
+        for (int j = 0; j < 3; j++) {
+            body.append(j == 0 ? "" : ",")
+                    .append('"').append(DatasetGenerator.name((first + j) % dataset.currencies())).append("\":1.").append(j + 1);
+        }
+        return body.append("}}").toString();
+    }
+
+    private static long heapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long p99(List<Row> rows, String operation, int size) {
+        return rows.stream()
+                .filter(row -> row.operation().equals(operation) && row.currencies() == size)
+                .mapToLong(Row::p99Micros)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private record Meter(DatasetGenerator dataset, long loadMillis, long heapMb) {
+
+        Row measure(String operation, int ops, Operation body) throws Exception {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long thread = Thread.currentThread().threadId();
+            long[] latencies = new long[ops];
+
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < ops; i++) {
+                long start = System.nanoTime();
+                body.run(i);
+                latencies[i] = System.nanoTime() - start;
+            }
+            long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+            Arrays.sort(latencies);
+            Row row = new Row(operation, dataset.currencies(), dataset.exchangesPerCurrency(), loadMillis, heapMb, ops,
+                    percentileMicros(latencies, 0.5), percentileMicros(latencies, 0.99), allocated / ops);
+            System.out.printf("operation=%s currencies=%d exchangesPerCurrency=%d loadMillis=%d heapAfterLoadMb=%d ops=%d "
+                            + "p50=%dus p99=%dus allocatedBytesPerOp=%d%n",
+                    row.operation(), row.currencies(), row.exchangesPerCurrency(), row.loadMillis(), row.heapMb(), row.ops(),
+                    row.p50Micros(), row.p99Micros(), row.allocatedBytesPerOp());
+            return row;
+        }
+
+        private static long percentileMicros(long[] sorted, double percentile) {
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+            return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, index)]);
+        }
+    }
+
+    private record Row(String operation, int currencies, int exchangesPerCurrency, long loadMillis, long heapMb, int ops,
+                       long p50Micros, long p99Micros, long allocatedBytesPerOp) {
+
+        String csv() {
+            return String.join(",", operation, String.valueOf(currencies), String.valueOf(exchangesPerCurrency),
+                    String.valueOf(loadMillis), String.valueOf(heapMb), String.valueOf(ops), String.valueOf(p50Micros),
+                    String.valueOf(p99Micros), String.valueOf(allocatedBytesPerOp));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.ada.currencyapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.ada.currencyapi.config.ServerTimingFilter;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+@SpringBootTest(properties = "currency.timing.slow-threshold=1ns")
+@AutoConfigureMockMvc
+public class ServerTimingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @BeforeEach
+    void setUp() {
+        currencyRepository.deleteAll();
+        currencyRepository.save(new Currency(null, "BRL", "Real", Map.of("USD", new BigDecimal("0.19"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void reportsPhasesWhenRequested() throws Exception {
+        String serverTiming = mockMvc.perform(get("/currency/convert?from=BRL&to=USD&amount=10").header("X-Server-Timing", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(1.9))
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertThat(serverTiming.split(", ")).allMatch(span -> span.matches("\\w+;dur=\\d+\\.\\d{3}"));
+        assertThat(Arrays.stream(serverTiming.split(", ")).map(span -> span.substring(0, span.indexOf(';'))))
+                .containsExactlyInAnyOrder("db", "sql", "serialize", "total");
+    }
+
+    @Test
+    void reportsFailedLookups() throws Exception {
+        mockMvc.perform(get("/currency/convert?from=XXX&to=USD&amount=10").header("X-Server-Timing", "1"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string("Server-Timing", containsString("db;dur=")));
+    }
+
+    @Test
+    void notReportedUnlessSampledOrRequested() throws Exception {
+        mockMvc.perform(get("/currency/convert?from=BRL&to=USD&amount=10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+
+    @Test
+    void slowRequestsAreLogged() throws Exception {
+        Logger logger = (Logger) LoggerFactory.getLogger(ServerTimingFilter.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            mockMvc.perform(get("/currency/convert?from=BRL&to=USD&amount=10"))
+                    .andExpect(status().isOk());
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).anyMatch(message -> message.matches(
+                "Slow request method=GET path=/currency/convert query=from=BRL&to=USD&amount=10 status=200 "
+                        + "total_ms=\\d+ db_ms=\\d+\\.\\d{3} sql_ms=\\d+\\.\\d{3} serialize_ms=\\d+\\.\\d{3}"));
+    }
+}
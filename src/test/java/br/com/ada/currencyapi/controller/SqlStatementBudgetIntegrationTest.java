@@ -0,0 +1,171 @@
+package br.com.ada.currencyapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.support.SqlStatementCounter;
+
+/**
+ * Statement budgets per endpoint. Each endpoint runs against datasets of increasing size and must
+ * stay within its budget and issue the same number of statements at every size, so an N+1 fails
+ * here with the offending statements listed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.class)
+public class SqlStatementBudgetIntegrationTest {
+
+    private static final int[] DATASET_SIZES = {10, 100, 1000};
+    private static final int EXCHANGES_PER_CURRENCY = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @AfterEach
+    void tearDown() {
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void listCurrencies() throws Exception {
+        assertBudget("GET /currency", 2, () -> mockMvc.perform(get("/currency"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void convertCurrency() throws Exception {
+        // currency and rate in one join, whatever the number of exchanges
+        assertBudget("GET /currency/convert", 1, () -> mockMvc.perform(get("/currency/convert?from=C0000&to=C0001&amount=10"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void createCurrency() throws Exception {
+        // lookup, sequence, currency insert and one insert per exchange
+        assertBudget("POST /currency", 3 + EXCHANGES_PER_CURRENCY, () -> mockMvc.perform(post("/currency")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"NEW\",\"description\":\"New coin\",\"exchanges\":{\"C0000\":1.1,\"C0001\":1.2,\"C0002\":1.3}}"))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void deleteCurrency() throws Exception {
+        // one delete per table; Hibernate 6 may also clear the collection table before a bulk delete
+        assertBudget("DELETE /currency/{id}", 3, () -> {
+            Long id = currencyRepository.findByName("C0000").getId();
+            // the id lookup is setup, not part of the request
+            counter.start();
+            mockMvc.perform(delete("/currency/{id}", id))
+                    .andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void deleteCurrencies() throws Exception {
+        // id check, name lookup and the deletes of a single delete
+        assertBudget("DELETE /currency", 5, () -> {
+            Long id = currencyRepository.findByName("C0000").getId();
+            counter.start();
+            mockMvc.perform(delete("/currency").param("ids", String.valueOf(id)).param("names", "C0001", "C0002", "C0003"))
+                    .andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void updateRates() throws Exception {
+        // id lookup, update batch and insert batch for the pairs that did not exist
+        assertBudget("PUT /currency/rates", 3, () -> mockMvc.perform(put("/currency/rates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(rateFeed()))
+                .andExpect(status().isOk()));
+    }
+
+    private void assertBudget(String endpoint, int budget, Request request) throws Exception {
+        Map<Integer, List<String>> bySize = new LinkedHashMap<>();
+        for (int size : DATASET_SIZES) {
+            seed(size);
+            counter.start();
+            try {
+                request.perform();
+            } finally {
+                bySize.put(size, counter.stop());
+            }
+            currencyRepository.deleteAll();
+        }
+
+        bySize.forEach((size, statements) -> assertThat(statements.size())
+                .withFailMessage("%s issued %d statements with %d currencies, budget is %d:%n%s",
+                        endpoint, statements.size(), size, budget, SqlStatementCounter.describe(statements))
+                .isLessThanOrEqualTo(budget));
+
+        // ids come from the sequence in blocks, so whether a request fetches a block depends on what ran before it
+        long smallest = withoutIdAllocation(bySize.get(DATASET_SIZES[0]));
+        bySize.forEach((size, statements) -> assertThat(withoutIdAllocation(statements))
+                .withFailMessage("%s issued %d statements with %d currencies but %d with %d:%n%s",
+                        endpoint, statements.size(), size, smallest, DATASET_SIZES[0], SqlStatementCounter.describe(statements))
+                .isEqualTo(smallest));
+    }
+
+    private static long withoutIdAllocation(List<String> statements) {
+        return statements.stream().filter(sql -> !sql.contains("next value for")).count();
+    }
+
+    private void seed(int size) {
+        currencyRepository.deleteAll();
+        List<Currency> currencies = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, BigDecimal> exchanges = new LinkedHashMap<>();
+            for (int j = 1; j <= EXCHANGES_PER_CURRENCY; j++) {
+                exchanges.put(name((i + j) % size), BigDecimal.valueOf(i + j, 2));
+            }
+            currencies.add(Currency.builder().name(name(i)).description("Coin " + i).exchanges(exchanges).build());
+        }
+        currencyRepository.saveAll(currencies);
+    }
+
+    private static String rateFeed() {
+        StringBuilder feed = new StringBuilder("[");
+        for (int i = 0; i < 5; i++) {
+            feed.append(i == 0 ? "" : ",")
+                    .append("{\"from\":\"").append(name(i)).append("\",\"to\":\"").append(name(i + 1)).append("\",\"rate\":2.5},")
+                    .append("{\"from\":\"").append(name(i)).append("\",\"to\":\"NEW\",\"rate\":0.5}");
+        }
+        return feed.append("]").toString();
+    }
+
+    private static String name(int index) {
+        return "C%04d".formatted(index);
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        void perform() throws Exception;
+    }
+}
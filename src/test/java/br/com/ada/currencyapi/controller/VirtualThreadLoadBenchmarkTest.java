@@ -0,0 +1,113 @@
+package br.com.ada.currencyapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.ada.currencyapi.CurrencyApiApplication;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.support.StubQuoteServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs the same upstream conversion load against the application in platform-thread and in
+ * virtual-thread mode, each with few Tomcat threads and a quote API stand-in that answers after a
+ * fixed delay, and reports throughput, latency, platform threads and pinned virtual threads.
+ */
+@Tag("benchmark")
+public class VirtualThreadLoadBenchmarkTest {
+
+    private static final int SERVLET_THREADS = 16;
+    private static final int CALLERS = 512;
+    private static final Duration UPSTREAM_DELAY = Duration.ofMillis(200);
+
+    @Test
+    void compareThreadModes() {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        assertThat(platform.maxInFlight()).isLessThanOrEqualTo(SERVLET_THREADS);
+        assertThat(virtual.maxInFlight()).isGreaterThan(SERVLET_THREADS);
+        assertThat(virtual.elapsedMillis()).isLessThan(platform.elapsedMillis());
+    }
+
+    private Result run(boolean virtualThreads) {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (StubQuoteServer upstream = StubQuoteServer.start(UPSTREAM_DELAY).quote("USD", "EUR", new BigDecimal("0.92"));
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(CurrencyApiApplication.class)
+                     .run(
+                             "--server.port=0",
+                             "--server.tomcat.threads.max=" + SERVLET_THREADS,
+                             "--spring.threads.virtual.enabled=" + virtualThreads,
+                             "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                             "--currency.client.url=" + upstream.url(),
+                             "--currency.client.limiter.enabled=false",
+                             "--currency.providers.order=awesomeapi",
+                             "--currency.warmup.enabled=false",
+                             "--currency.grpc.enabled=false")) {
+
+            context.getBean(CurrencyRepository.class)
+                    .save(Currency.builder().name("USD").exchanges(new HashMap<>()).build());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:%d/currency/convert/api?from=USD&to=EUR&amount=10".formatted(port))).build();
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Long>> latencies = IntStream.range(0, CALLERS)
+                    .mapToObj(i -> {
+                        long sent = System.nanoTime();
+                        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                                .thenApply(response -> {
+                                    assertThat(response.statusCode()).isEqualTo(200);
+                                    return System.nanoTime() - sent;
+                                });
+                    })
+                    .toList();
+            CompletableFuture.allOf(latencies.toArray(CompletableFuture[]::new)).join();
+            long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+            long[] sorted = latencies.stream().mapToLong(CompletableFuture::join).sorted().toArray();
+            Counter pinned = context.getBean(MeterRegistry.class).find("currency.threads.pinned").counter();
+
+            Result result = new Result(elapsed, upstream.maxInFlight());
+            System.out.printf("mode=%s callers=%d servletThreads=%d upstreamDelay=%dms elapsed=%dms requestsPerSecond=%d "
+                            + "p50=%dms p99=%dms maxInFlight=%d peakPlatformThreads=%d pinned=%s%n",
+                    mode, CALLERS, SERVLET_THREADS, UPSTREAM_DELAY.toMillis(), elapsed, CALLERS * 1000L / Math.max(1, elapsed),
+                    percentileMillis(sorted, 0.5), percentileMillis(sorted, 0.99), result.maxInFlight(),
+                    threads.getPeakThreadCount(), pinned == null ? "n/a" : (long) pinned.count());
+            return result;
+        }
+    }
+
+    private static long percentileMillis(long[] sorted, double percentile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return Duration.ofNanos(sorted[Math.max(0, index)]).toMillis();
+    }
+
+    private record Result(long elapsedMillis, int maxInFlight) {
+    }
+}
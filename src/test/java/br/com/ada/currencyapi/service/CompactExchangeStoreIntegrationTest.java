@@ -0,0 +1,123 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.domain.CurrencyRequest;
+import br.com.ada.currencyapi.domain.RateUpdateRequest;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+
+// chunks smaller than one currency's rates, so a feed spans several transactions of one request
+@SpringBootTest(properties = {"currency.exchanges.storage=compact", "currency.rates.chunk-size=2"})
+@AutoConfigureMockMvc
+public class CompactExchangeStoreIntegrationTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private RateFeedService rateFeedService;
+
+    @Autowired
+    private CompactExchangeStore compactExchangeStore;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        currencyRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void createWritesBothLayouts() {
+        HashMap<String, BigDecimal> exchanges = new HashMap<>(Map.of("BRL", new BigDecimal("5.25"), "EUR", new BigDecimal("0.92")));
+        currencyService.create(CurrencyRequest.builder().name("USD").description("Dollar").exchanges(exchanges).build());
+
+        assertThat(currencyRepository.findCompactByName("USD").exchanges())
+                .containsOnlyKeys("BRL", "EUR")
+                .hasEntrySatisfying("BRL", rate -> assertThat(rate).isEqualByComparingTo("5.25"));
+        assertThat(currencyRepository.findByName("USD").getExchanges()).containsOnlyKeys("BRL", "EUR");
+    }
+
+    @Test
+    void convertReadsCompactColumnOnceBackfilled() {
+        currencyRepository.save(new Currency(null, "USD", "Dollar", Map.of("BRL", new BigDecimal("5"))));
+        assertThat(currencyRepository.findCompactByName("USD").exchanges()).isNull();
+
+        assertThat(convert("USD", "BRL")).isEqualByComparingTo("50");
+
+        assertThat(compactExchangeStore.backfill()).isEqualTo(1);
+        assertThat(compactExchangeStore.backfill()).isZero();
+
+        // only the collection table changes, so the result shows which layout was read
+        jdbcTemplate.update("update exchanges set exchanges = 6 where currency_name = 'BRL'");
+        assertThat(convert("USD", "BRL")).isEqualByComparingTo("50");
+    }
+
+    @Test
+    void rateFeedRefreshesCompactColumn() {
+        currencyService.create(CurrencyRequest.builder().name("USD").description("Dollar").exchanges(new HashMap<>(Map.of("BRL", new BigDecimal("5")))).build());
+
+        rateFeedService.update(List.of(
+                new RateUpdateRequest("USD", "BRL", new BigDecimal("5.5")),
+                new RateUpdateRequest("USD", "JPY", new BigDecimal("150"))));
+
+        assertThat(convert("USD", "BRL")).isEqualByComparingTo("55");
+        assertThat(convert("USD", "JPY")).isEqualByComparingTo("1500");
+    }
+
+    @Test
+    void rateFeedAcrossChunksRefreshesCompactColumnFromTheTable() throws Exception {
+        currencyService.create(CurrencyRequest.builder().name("USD").description("Dollar").exchanges(new HashMap<>(Map.of("BRL", new BigDecimal("5")))).build());
+
+        mockMvc.perform(put("/currency/rates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"from":"USD","to":"BRL","rate":5.5},
+                                 {"from":"USD","to":"EUR","rate":0.9},
+                                 {"from":"USD","to":"JPY","rate":150}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(3));
+
+        assertThat(currencyRepository.findCompactByName("USD").exchanges())
+                .containsOnlyKeys("BRL", "EUR", "JPY")
+                .hasEntrySatisfying("BRL", rate -> assertThat(rate).isEqualByComparingTo("5.5"))
+                .hasEntrySatisfying("JPY", rate -> assertThat(rate).isEqualByComparingTo("150"));
+        assertThat(convert("USD", "JPY")).isEqualByComparingTo("1500");
+    }
+
+    private BigDecimal convert(String from, String to) {
+        return currencyService.convert(ConvertCurrencyRequest.builder().from(from).to(to).amount(BigDecimal.TEN).build()).getAmount();
+    }
+}
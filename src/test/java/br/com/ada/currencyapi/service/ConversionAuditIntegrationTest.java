@@ -0,0 +1,67 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import br.com.ada.currencyapi.domain.ConversionAuditResponse;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.repository.ConversionAuditRepository;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+
+@SpringBootTest
+public class ConversionAuditIntegrationTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private ConversionAuditor conversionAuditor;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private ConversionAuditRepository auditRepository;
+
+    @BeforeEach
+    void setUp() {
+        currencyRepository.deleteAll();
+        conversionAuditor.flush();
+        auditRepository.deleteAll();
+        currencyRepository.save(new Currency(null, "USD", "Dollar", Map.of("EUR", new BigDecimal("0.9"), "BRL", new BigDecimal("5"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        currencyRepository.deleteAll();
+        auditRepository.deleteAll();
+    }
+
+    @Test
+    void conversionsAreAuditedAndQueryable() {
+        Instant before = Instant.now();
+        currencyService.convert(ConvertCurrencyRequest.builder().from("USD").to("EUR").amount(BigDecimal.TEN).build());
+        currencyService.convert(ConvertCurrencyRequest.builder().from("USD").to("BRL").amount(BigDecimal.ONE).build());
+        conversionAuditor.flush();
+
+        List<ConversionAuditResponse> audits = conversionAuditor.search("USD", null, before, null, 10);
+
+        assertThat(audits).extracting(ConversionAuditResponse::getTo).containsExactly("BRL", "EUR");
+        assertThat(audits.get(1).getAmount()).isEqualByComparingTo("10");
+        assertThat(audits.get(1).getRate()).isEqualByComparingTo("0.9");
+        assertThat(audits.get(1).getSource()).isEqualTo("LOCAL");
+        assertThat(conversionAuditor.search(null, "EUR", before, null, 10)).hasSize(1);
+        assertThat(conversionAuditor.search("EUR", null, before, null, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import br.com.ada.currencyapi.config.AuditProperties;
+import br.com.ada.currencyapi.config.AuditProperties.Overflow;
+import br.com.ada.currencyapi.domain.ConversionAudit;
+import br.com.ada.currencyapi.domain.ConversionAudit.Source;
+import br.com.ada.currencyapi.repository.ConversionAuditJdbcRepository;
+import br.com.ada.currencyapi.repository.ConversionAuditRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ConversionAuditorUnitTest {
+
+    @Mock
+    private ConversionAuditJdbcRepository auditJdbcRepository;
+
+    @Mock
+    private ConversionAuditRepository auditRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AuditProperties properties = new AuditProperties();
+
+    @BeforeEach
+    void setUp() {
+        properties.setCapacity(2);
+        properties.setBatchSize(10);
+    }
+
+    private ConversionAuditor auditor() {
+        return new ConversionAuditor(properties, auditJdbcRepository, auditRepository, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void recordDoesNotWriteFromCaller() {
+        ConversionAuditor auditor = auditor();
+
+        auditor.record("USD", "EUR", BigDecimal.TEN, new BigDecimal("0.9"), Source.LOCAL);
+
+        verifyNoInteractions(auditJdbcRepository);
+        assertThat(meterRegistry.get("currency.audit.buffer.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void flushWritesBufferedRecordsInOneBatch() {
+        ConversionAuditor auditor = auditor();
+        auditor.record("USD", "EUR", BigDecimal.TEN, new BigDecimal("0.9"), Source.LOCAL);
+        auditor.record("USD", "BRL", BigDecimal.ONE, new BigDecimal("5"), Source.UPSTREAM);
+
+        List<ConversionAudit> written = new ArrayList<>();
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0))).when(auditJdbcRepository).insertAll(anyList());
+        auditor.flush();
+
+        verify(auditJdbcRepository, times(1)).insertAll(anyList());
+        assertThat(written).extracting(ConversionAudit::getToCurrency).containsExactly("EUR", "BRL");
+        assertThat(written).extracting(ConversionAudit::getSource).containsExactly(Source.LOCAL, Source.UPSTREAM);
+        assertThat(meterRegistry.get("currency.audit.written").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsWhenFull() {
+        properties.setOverflow(Overflow.DROP);
+        ConversionAuditor auditor = auditor();
+
+        for (int i = 0; i < 3; i++) {
+            auditor.record("USD", "EUR", BigDecimal.TEN, new BigDecimal("0.9"), Source.LOCAL);
+        }
+
+        verifyNoInteractions(auditJdbcRepository);
+        assertThat(meterRegistry.get("currency.audit.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void callerRunsWhenFull() {
+        properties.setOverflow(Overflow.CALLER_RUNS);
+        ConversionAuditor auditor = auditor();
+
+        for (int i = 0; i < 3; i++) {
+            auditor.record("USD", "EUR", BigDecimal.TEN, new BigDecimal("0.9"), Source.LOCAL);
+        }
+
+        verify(auditJdbcRepository, times(1)).insertAll(anyList());
+        // outside the caller's read-only transaction
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW && !definition.isReadOnly()));
+        assertThat(meterRegistry.get("currency.audit.dropped").counter().count()).isZero();
+        assertThat(meterRegistry.get("currency.audit.written").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void disabled() {
+        properties.setEnabled(false);
+        ConversionAuditor auditor = auditor();
+
+        auditor.record("USD", "EUR", BigDecimal.TEN, new BigDecimal("0.9"), Source.LOCAL);
+
+        assertThat(meterRegistry.get("currency.audit.buffer.size").gauge().value()).isZero();
+    }
+}
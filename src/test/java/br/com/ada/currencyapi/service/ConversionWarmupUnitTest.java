@@ -0,0 +1,133 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.ada.currencyapi.config.WarmupProperties;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ConversionWarmupUnitTest {
+
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private ExchangeJdbcRepository exchangeJdbcRepository;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final WarmupProperties properties = new WarmupProperties();
+
+    private ConversionWarmup warmup() {
+        return new ConversionWarmup(properties, currencyService, exchangeJdbcRepository, dataSource, meterRegistry);
+    }
+
+    @Test
+    void preloadsAndRunsWorkloadUntilSteady() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        properties.setPairs(List.of("USD:BRL", "EUR:USD"));
+        properties.setIterations(1_000);
+        properties.setWindow(5);
+        properties.setTolerance(10);
+
+        warmup().run(null);
+
+        verify(connection).close();
+        verify(currencyService).get();
+        verify(exchangeJdbcRepository).findAllRates();
+        verify(currencyService, atLeast(10)).convert(any(ConvertCurrencyRequest.class));
+        verify(currencyService, never()).convertAPI(any());
+        assertThat(meterRegistry.get("currency.warmup.steady.state").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("currency.warmup.iterations").gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get("currency.warmup.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void upstreamWarmupRunsAtBackgroundPriority() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        properties.setPairs(List.of("USD:BRL"));
+        properties.setIterations(3);
+        properties.setUpstream(true);
+        List<UpstreamPriority> priorities = new CopyOnWriteArrayList<>();
+        when(currencyService.convertAPI(any())).thenAnswer(invocation -> {
+            priorities.add(UpstreamPriority.current());
+            return null;
+        });
+
+        warmup().run(null);
+
+        assertThat(priorities).containsExactly(UpstreamPriority.BACKGROUND, UpstreamPriority.BACKGROUND, UpstreamPriority.BACKGROUND);
+        assertThat(UpstreamPriority.current()).isEqualTo(UpstreamPriority.INTERACTIVE);
+    }
+
+    @Test
+    void warmupConversionsRunAsWarmupOrigin() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        properties.setPairs(List.of("USD:BRL"));
+        properties.setIterations(2);
+        properties.setUpstream(true);
+        List<ConversionOrigin> origins = new CopyOnWriteArrayList<>();
+        when(currencyService.convert(any())).thenAnswer(invocation -> {
+            origins.add(ConversionOrigin.current());
+            return null;
+        });
+        when(currencyService.convertAPI(any())).thenAnswer(invocation -> {
+            origins.add(ConversionOrigin.current());
+            return null;
+        });
+
+        warmup().run(null);
+
+        assertThat(origins).hasSize(4).containsOnly(ConversionOrigin.WARMUP);
+        assertThat(ConversionOrigin.current()).isEqualTo(ConversionOrigin.CLIENT);
+    }
+
+    @Test
+    void failuresDoNotStopStartup() throws Exception {
+        when(dataSource.getConnection()).thenThrow(new java.sql.SQLException("down"));
+        when(currencyService.get()).thenThrow(new IllegalStateException("down"));
+        when(currencyService.convert(any())).thenThrow(new CoinNotFoundException("Coin not found: USD"));
+        properties.setPairs(List.of("USD:BRL"));
+        properties.setIterations(5);
+
+        warmup().run(null);
+
+        assertThat(meterRegistry.get("currency.warmup.iterations").gauge().value()).isEqualTo(5);
+        assertThat(meterRegistry.get("currency.warmup.steady.state").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabled() {
+        properties.setEnabled(false);
+
+        warmup().run(null);
+
+        verifyNoInteractions(currencyService, exchangeJdbcRepository, dataSource);
+    }
+}
@@ -150,6 +150,18 @@ public class CurrencyServiceIntegrationTest {
                 .hasMessage("Exchange EUR not found for RUB");
     }
 
+    @Test
+    void convertCoinNotFound() {
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest();
+        request.setTo("EUR");
+        request.setFrom("ETH");
+        request.setAmount(BigDecimal.ONE);
+
+        assertThatThrownBy(()-> currencyService.convert(request))
+                .isInstanceOf(CoinNotFoundException.class)
+                .hasMessage("Coin not found: ETH");
+    }
+
     @Test
     void convertWithAPI(){
         ConvertCurrencyRequest request = new ConvertCurrencyRequest();
@@ -4,12 +4,16 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,7 +31,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import br.com.ada.currencyapi.exception.CoinNotFoundException;
 import br.com.ada.currencyapi.exception.CurrencyException;
+import br.com.ada.currencyapi.exception.UpstreamRateLimitException;
 import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class CurrencyServiceUnitTest {
@@ -36,11 +42,26 @@ public class CurrencyServiceUnitTest {
     private CurrencyService currencyService;
 
     @Mock
-    private CurrencyClient currencyClient;
+    private QuoteAggregator quoteAggregator;
 
     @Mock
     private CurrencyRepository currencyRepository;
 
+    @Mock
+    private ExchangeJdbcRepository exchangeJdbcRepository;
+
+    @Mock
+    private ConversionAuditor conversionAuditor;
+
+    @Mock
+    private PairUsageStats pairUsageStats;
+
+    @Mock
+    private CompactExchangeStore compactExchangeStore;
+
+    @Mock
+    private QuoteRefresher quoteRefresher;
+
     private final List<Currency> coinsOfTest = new ArrayList<>();
 
     @BeforeEach
@@ -141,7 +162,7 @@ public class CurrencyServiceUnitTest {
 
     @Test
     void deleteCoinNotFound() {
-        Mockito.when(currencyRepository.findById(anyLong())).thenReturn(Optional.empty());
+        Mockito.when(currencyRepository.deleteAllByIdIn(List.of(1L))).thenReturn(0);
 
         assertThatThrownBy(()-> currencyService.delete(1L))
                 .isInstanceOf(CoinNotFoundException.class)
@@ -150,17 +171,45 @@ public class CurrencyServiceUnitTest {
 
     @Test
     void deleteCoin() {
-        Mockito.when(currencyRepository.findById(3L)).thenReturn(Optional.ofNullable(coinsOfTest.get(2)));
+        Mockito.when(currencyRepository.deleteAllByIdIn(List.of(3L))).thenReturn(1);
 
         currencyService.delete(3L);
-        verify(currencyRepository, times(1)).deleteById(3L);
+        verify(currencyRepository, times(1)).deleteExchangesByCurrencyIdIn(List.of(3L));
+        verify(currencyRepository, times(1)).deleteAllByIdIn(List.of(3L));
         verifyNoMoreInteractions(currencyRepository);
     }
 
+    @Test
+    void deleteCoinsByIdsAndNames() {
+        Mockito.when(currencyRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        Mockito.when(exchangeJdbcRepository.findIdsByNames(List.of("JPY"))).thenReturn(Map.of("JPY", 3L));
+        Mockito.when(currencyRepository.deleteAllByIdIn(Set.of(1L, 2L, 3L))).thenReturn(3);
+
+        assertThat(currencyService.delete(List.of(1L, 2L), List.of("JPY"))).isEqualTo(3);
+        verify(currencyRepository, times(1)).deleteExchangesByCurrencyIdIn(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void deleteCoinsMissing() {
+        Mockito.when(currencyRepository.findExistingIds(List.of(1L, 9L))).thenReturn(List.of(1L));
+        Mockito.when(exchangeJdbcRepository.findIdsByNames(List.of("JPY", "XXX"))).thenReturn(Map.of("JPY", 3L));
+
+        assertThatThrownBy(()-> currencyService.delete(List.of(1L, 9L), List.of("JPY", "XXX")))
+                .isInstanceOf(CoinNotFoundException.class)
+                .hasMessage("Coins not found: 9, XXX");
+        verify(currencyRepository, times(0)).deleteAllByIdIn(any());
+    }
+
+    @Test
+    void deleteCoinsNothingGiven() {
+        assertThatThrownBy(()-> currencyService.delete(List.of(), null))
+                .isInstanceOf(CurrencyException.class)
+                .hasMessage("Ids or names of the coins to delete are required");
+    }
+
     @Test
     void convertCurrency() {
-        Mockito.when(currencyRepository.findByName("USD")).thenReturn(coinsOfTest.get(1));
-        coinsOfTest.get(1).setExchanges(Map.of("BRL", new BigDecimal("5")));
+        Mockito.when(currencyRepository.findRate("USD", "BRL")).thenReturn(rateLookup(2L, new BigDecimal("5")));
 
         ConvertCurrencyRequest request = ConvertCurrencyRequest
                 .builder()
@@ -171,13 +220,62 @@ public class CurrencyServiceUnitTest {
 
         ConvertCurrencyResponse response = currencyService.convert(request);
         Assertions.assertEquals(new BigDecimal(50), response.getAmount());
-        verify(currencyRepository, times(1)).findByName("USD");
+        verify(currencyRepository, times(1)).findRate("USD", "BRL");
         verifyNoMoreInteractions(currencyRepository);
+        verify(conversionAuditor).record("USD", "BRL", BigDecimal.TEN, new BigDecimal("5"), ConversionAudit.Source.LOCAL);
+        verify(pairUsageStats).record(eq("USD"), eq("BRL"), anyLong());
+    }
+
+    @Test
+    void convertCurrencyDuringWarmupIsNotRecorded() {
+        Mockito.when(currencyRepository.findRate("USD", "BRL")).thenReturn(rateLookup(2L, new BigDecimal("5")));
+
+        ConvertCurrencyRequest request = ConvertCurrencyRequest
+                .builder()
+                .from("USD")
+                .to("BRL")
+                .amount(BigDecimal.TEN)
+                .build();
+
+        ConvertCurrencyResponse response = ConversionOrigin.warmup(() -> currencyService.convert(request));
+        Assertions.assertEquals(new BigDecimal(50), response.getAmount());
+        verifyNoInteractions(conversionAuditor, pairUsageStats);
+    }
+
+    @Test
+    void convertCurrencyFromCompactColumn() {
+        when(compactExchangeStore.readsCompact()).thenReturn(true);
+        when(currencyRepository.findCompactByName("USD")).thenReturn(new CurrencyExchanges(2L, Map.of("BRL", new BigDecimal("5"))));
+
+        ConvertCurrencyResponse response = currencyService.convert(ConvertCurrencyRequest.builder()
+                .from("USD")
+                .to("BRL")
+                .amount(BigDecimal.TEN)
+                .build());
+
+        Assertions.assertEquals(new BigDecimal(50), response.getAmount());
+        verify(currencyRepository, times(1)).findCompactByName("USD");
+        verifyNoMoreInteractions(currencyRepository);
+    }
+
+    @Test
+    void convertCurrencyCompactColumnNotBackfilled() {
+        when(compactExchangeStore.readsCompact()).thenReturn(true);
+        when(currencyRepository.findCompactByName("USD")).thenReturn(new CurrencyExchanges(2L, null));
+        when(currencyRepository.findRate("USD", "BRL")).thenReturn(rateLookup(2L, new BigDecimal("5")));
+
+        ConvertCurrencyResponse response = currencyService.convert(ConvertCurrencyRequest.builder()
+                .from("USD")
+                .to("BRL")
+                .amount(BigDecimal.TEN)
+                .build());
+
+        Assertions.assertEquals(new BigDecimal(50), response.getAmount());
     }
 
     @Test
     void convertCurrencyFromNotExists() {
-        Mockito.when(currencyRepository.findByName("USD")).thenReturn(coinsOfTest.get(1));
+        Mockito.when(currencyRepository.findRate("USD", "R$")).thenReturn(rateLookup(2L, null));
         ConvertCurrencyRequest request = ConvertCurrencyRequest
                 .builder()
                 .from("USD")
@@ -211,12 +309,41 @@ public class CurrencyServiceUnitTest {
         request.setFrom("USD");
         request.setAmount(BigDecimal.ONE);
 
-        Map<String, CurrencyQuote> quotes = Map.of("USDEUR", CurrencyQuote.builder().low(BigDecimal.TEN).build());
-
-      when(currencyRepository.findByName(anyString())).thenReturn(coinsOfTest.get(1));
-      when(currencyClient.getCurrencyQuote(anyString())).thenReturn(quotes);
+      when(currencyRepository.existsByName(anyString())).thenReturn(true);
+      when(quoteAggregator.getRate("USD", "EUR", BigDecimal.ONE)).thenReturn(BigDecimal.TEN);
 
       assertThat(currencyService.convertAPI(request).getAmount()).isEqualTo(new BigDecimal(10));
+      verify(conversionAuditor).record("USD", "EUR", BigDecimal.ONE, BigDecimal.TEN, ConversionAudit.Source.UPSTREAM);
+      verify(pairUsageStats).recordUpstream(eq("USD"), eq("EUR"), anyLong());
+    }
+
+    @Test
+    void convertWithAPIUsesSharedQuote() {
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest();
+        request.setTo("EUR");
+        request.setFrom("USD");
+        request.setAmount(BigDecimal.TEN);
+
+        when(currencyRepository.existsByName(anyString())).thenReturn(true);
+        when(quoteRefresher.findFresh("USD", "EUR")).thenReturn(Optional.of(new BigDecimal("0.9")));
+
+        assertThat(currencyService.convertAPI(request).getAmount()).isEqualByComparingTo("9");
+        verify(quoteAggregator, never()).getRate(any(), any(), any());
+    }
+
+    @Test
+    void convertWithAPISkipsSharedQuoteForMedianAmounts() {
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest();
+        request.setTo("EUR");
+        request.setFrom("USD");
+        request.setAmount(new BigDecimal("100000"));
+
+        when(currencyRepository.existsByName(anyString())).thenReturn(true);
+        when(quoteAggregator.useMedian(request.getAmount())).thenReturn(true);
+        when(quoteAggregator.getRate("USD", "EUR", request.getAmount())).thenReturn(new BigDecimal("0.91"));
+
+        assertThat(currencyService.convertAPI(request).getAmount()).isEqualByComparingTo("91000");
+        verify(quoteRefresher, never()).findFresh(any(), any());
     }
 
     @Test
@@ -238,10 +365,40 @@ public class CurrencyServiceUnitTest {
         request.setFrom("USD");
         request.setAmount(BigDecimal.ONE);
 
-        when(currencyRepository.findByName(anyString())).thenReturn(coinsOfTest.get(1));
+        when(currencyRepository.existsByName(anyString())).thenReturn(true);
 
         assertThatThrownBy(() -> currencyService.convertAPI(request))
                 .isInstanceOf(CoinNotFoundException.class)
                 .hasMessage("Exchange R$ not found for USD");
     }
-}
\ No newline at end of file
+
+    @Test
+    void convertWithAPIRateLimited() {
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest();
+        request.setTo("EUR");
+        request.setFrom("USD");
+        request.setAmount(BigDecimal.ONE);
+
+        when(currencyRepository.existsByName(anyString())).thenReturn(true);
+        when(quoteAggregator.getRate(anyString(), anyString(), any()))
+                .thenThrow(new UpstreamRateLimitException("Quote API rate limit reached, try again later", Duration.ofSeconds(1)));
+
+        assertThatThrownBy(() -> currencyService.convertAPI(request))
+                .isInstanceOf(UpstreamRateLimitException.class)
+                .hasMessage("Quote API rate limit reached, try again later");
+    }
+
+    private static RateLookup rateLookup(Long currencyId, BigDecimal rate) {
+        return new RateLookup() {
+            @Override
+            public Long getCurrencyId() {
+                return currencyId;
+            }
+
+            @Override
+            public BigDecimal getRate() {
+                return rate;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+
+/**
+ * Lookup cost of one currency's rates through the {@code exchanges} collection table against the
+ * compact column, as the number of rates per currency grows.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "currency.exchanges.storage=dual")
+public class ExchangeStorageBenchmarkTest {
+
+    private static final int CURRENCIES = 50;
+    private static final int LOOKUPS = 2_000;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private CompactExchangeStore compactExchangeStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void compareLayouts() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (int rates : new int[] {10, 100, 1_000}) {
+            currencyRepository.deleteAll();
+            seed(rates);
+
+            measure(readOnly, rates, "collection", name -> currencyRepository.findByName(name).getExchanges());
+            measure(readOnly, rates, "compact", name -> currencyRepository.findCompactByName(name).exchanges());
+        }
+    }
+
+    private void seed(int rates) {
+        List<Currency> currencies = new ArrayList<>();
+        for (int i = 0; i < CURRENCIES; i++) {
+            Map<String, BigDecimal> exchanges = new TreeMap<>();
+            for (int j = 0; j < rates; j++) {
+                exchanges.put("R%04d".formatted(j), BigDecimal.valueOf(i * rates + j, 4));
+            }
+            currencies.add(Currency.builder()
+                    .name("C%03d".formatted(i))
+                    .exchanges(exchanges)
+                    .exchangesCompact(compactExchangeStore.forWrite(exchanges))
+                    .build());
+        }
+        currencyRepository.saveAll(currencies);
+    }
+
+    private void measure(TransactionTemplate readOnly, int rates, String layout, Function<String, Map<String, BigDecimal>> lookup) {
+        for (int i = 0; i < LOOKUPS / 4; i++) {
+            String name = "C%03d".formatted(i % CURRENCIES);
+            readOnly.execute(status -> lookup.apply(name));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            String name = "C%03d".formatted(i % CURRENCIES);
+            Map<String, BigDecimal> exchanges = readOnly.execute(status -> lookup.apply(name));
+            assertThat(exchanges).hasSize(rates);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("layout=%s ratesPerCurrency=%d lookups=%d usPerLookup=%d%n",
+                layout, rates, LOOKUPS, elapsed / LOOKUPS / 1_000);
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.ada.currencyapi.config.PairStatsProperties;
+import br.com.ada.currencyapi.domain.PairUsageResponse;
+
+public class PairUsageStatsUnitTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private final PairStatsProperties properties = new PairStatsProperties();
+
+    private PairUsageStats stats;
+
+    @BeforeEach
+    void setUp() {
+        properties.setSlice(Duration.ofSeconds(10));
+        properties.setSlices(6);
+        stats = new PairUsageStats(properties, now::get);
+    }
+
+    @Test
+    void ranksPairsByCount() {
+        record("USD", "BRL", 5, TimeUnit.MILLISECONDS.toNanos(2));
+        record("EUR", "USD", 3, TimeUnit.MILLISECONDS.toNanos(2));
+        record("BRL", "EUR", 1, TimeUnit.MILLISECONDS.toNanos(2));
+
+        List<PairUsageResponse> top = stats.top(Duration.ofMinutes(1), 2);
+
+        assertThat(top).extracting(PairUsageResponse::getFrom).containsExactly("USD", "EUR");
+        assertThat(top).extracting(PairUsageResponse::getCount).containsExactly(5L, 3L);
+        assertThat(top.get(0).getPerSecond()).isEqualTo(5 / 60.0);
+    }
+
+    @Test
+    void windowsSlideOut() {
+        record("USD", "BRL", 4, 1_000);
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+        record("EUR", "USD", 2, 1_000);
+
+        assertThat(stats.top(Duration.ofSeconds(10), 10)).extracting(PairUsageResponse::getFrom).containsExactly("EUR");
+        assertThat(stats.top(Duration.ofMinutes(1), 10)).extracting(PairUsageResponse::getFrom).containsExactly("USD", "EUR");
+
+        now.addAndGet(Duration.ofSeconds(45).toMillis());
+        assertThat(stats.top(Duration.ofMinutes(1), 10)).extracting(PairUsageResponse::getFrom).containsExactly("EUR");
+        assertThat(stats.rate("USD", "BRL", Duration.ofMinutes(1))).isZero();
+        assertThat(stats.activePairs(Duration.ofMinutes(1))).isEqualTo(1);
+
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+        record("USD", "BRL", 1, 1_000);
+        assertThat(stats.top(Duration.ofMinutes(1), 10)).extracting(PairUsageResponse::getCount).containsExactly(1L);
+    }
+
+    @Test
+    void upstreamDemandIsCountedApart() {
+        record("USD", "BRL", 6, 1_000);
+        for (int i = 0; i < 3; i++) {
+            stats.recordUpstream("USD", "BRL", 1_000);
+        }
+
+        assertThat(stats.rate("USD", "BRL", Duration.ofMinutes(1))).isEqualTo(9 / 60.0);
+        assertThat(stats.upstreamRate("USD", "BRL", Duration.ofMinutes(1))).isEqualTo(3 / 60.0);
+        assertThat(stats.upstreamRate("EUR", "BRL", Duration.ofMinutes(1))).isZero();
+    }
+
+    @Test
+    void latencyPercentiles() {
+        record("USD", "BRL", 98, TimeUnit.MILLISECONDS.toNanos(1));
+        record("USD", "BRL", 2, TimeUnit.MILLISECONDS.toNanos(100));
+
+        PairUsageResponse usage = stats.top(Duration.ofMinutes(1), 1).get(0);
+
+        assertThat(usage.getP50Millis()).isBetween(1.0, 1.25);
+        assertThat(usage.getP99Millis()).isBetween(100.0, 125.0);
+    }
+
+    @Test
+    void latenciesAgeOut() {
+        record("USD", "BRL", 10, TimeUnit.MILLISECONDS.toNanos(100));
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+        record("USD", "BRL", 10, TimeUnit.MILLISECONDS.toNanos(1));
+
+        PairUsageResponse usage = stats.top(Duration.ofMinutes(1), 1).get(0);
+
+        assertThat(usage.getP99Millis()).isBetween(1.0, 1.25);
+    }
+
+    @Test
+    void foldsPairsBeyondLimit() {
+        properties.setMaxPairs(2);
+        record("USD", "BRL", 1, 1_000);
+        record("EUR", "USD", 1, 1_000);
+        record("BRL", "EUR", 1, 1_000);
+        record("JPY", "EUR", 1, 1_000);
+
+        assertThat(stats.top(Duration.ofMinutes(1), 10))
+                .extracting(usage -> usage.getFrom() + ":" + usage.getTo())
+                .containsExactly(PairUsageStats.OVERFLOW, "EUR:USD", "USD:BRL");
+    }
+
+    @Test
+    void evictsIdlePairsToTrackNewOnes() {
+        properties.setMaxPairs(2);
+        record("USD", "BRL", 1, 1_000);
+        now.addAndGet(Duration.ofSeconds(50).toMillis());
+        record("EUR", "USD", 1, 1_000);
+        now.addAndGet(Duration.ofSeconds(20).toMillis());
+
+        // USD:BRL has been idle for the whole horizon, EUR:USD has not
+        record("BRL", "EUR", 1, 1_000);
+        record("JPY", "EUR", 1, 1_000);
+
+        assertThat(stats.top(Duration.ofMinutes(1), 10))
+                .extracting(usage -> usage.getFrom() + ":" + usage.getTo())
+                .containsExactly(PairUsageStats.OVERFLOW, "BRL:EUR", "EUR:USD");
+    }
+
+    @Test
+    void countsConcurrentConversions() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> record("USD", "BRL", 10_000, 1_000));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(stats.top(Duration.ofMinutes(1), 1).get(0).getCount()).isEqualTo(80_000);
+    }
+
+    @Test
+    void disabled() {
+        properties.setEnabled(false);
+        record("USD", "BRL", 1, 1_000);
+
+        assertThat(stats.top(Duration.ofMinutes(1), 10)).isEmpty();
+    }
+
+    private void record(String from, String to, int times, long nanos) {
+        for (int i = 0; i < times; i++) {
+            stats.record(from, to, nanos);
+        }
+    }
+}
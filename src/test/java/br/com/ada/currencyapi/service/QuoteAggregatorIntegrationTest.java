@@ -0,0 +1,88 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import br.com.ada.currencyapi.support.StubQuoteServer;
+
+@SpringBootTest(properties = {
+        "currency.providers.order=awesomeapi,frankfurter",
+        "currency.providers.hedge.max-delay=100ms",
+        "currency.providers.timeout=5s"
+})
+public class QuoteAggregatorIntegrationTest {
+
+    private static final StubQuoteServer awesomeapi = StubQuoteServer.start(Duration.ZERO)
+            .quote("USD", "EUR", new BigDecimal("0.90"));
+    private static final StubQuoteServer frankfurter = StubQuoteServer.start(Duration.ZERO)
+            .quote("USD", "EUR", new BigDecimal("0.95"));
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @DynamicPropertySource
+    static void providerUrls(DynamicPropertyRegistry registry) {
+        registry.add("currency.client.url", awesomeapi::url);
+        registry.add("currency.providers.frankfurter.url", frankfurter::url);
+    }
+
+    @BeforeEach
+    void setUp() {
+        currencyRepository.deleteAll();
+        currencyRepository.save(Currency.builder().name("USD").exchanges(new HashMap<>()).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        awesomeapi.delay(Duration.ZERO);
+        currencyRepository.deleteAll();
+    }
+
+    @AfterAll
+    static void stopProviders() {
+        awesomeapi.close();
+        frankfurter.close();
+    }
+
+    @Test
+    void primaryAnswers() {
+        assertThat(convertUsdToEur()).isEqualByComparingTo("9.00");
+    }
+
+    @Test
+    void slowPrimaryIsHedgedToSecondProvider() {
+        awesomeapi.delay(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        BigDecimal amount = convertUsdToEur();
+
+        assertThat(amount).isEqualByComparingTo("9.50");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    private BigDecimal convertUsdToEur() {
+        return currencyService.convertAPI(ConvertCurrencyRequest.builder()
+                .from("USD")
+                .to("EUR")
+                .amount(BigDecimal.TEN)
+                .build()).getAmount();
+    }
+}
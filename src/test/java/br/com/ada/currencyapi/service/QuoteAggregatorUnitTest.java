@@ -0,0 +1,198 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.ada.currencyapi.config.QuoteProviderProperties;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.exception.UpstreamUnavailableException;
+
+public class QuoteAggregatorUnitTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() {
+        FakeProvider primary = new FakeProvider("primary", Duration.ZERO, new BigDecimal("1.10"));
+        FakeProvider secondary = new FakeProvider("secondary", Duration.ZERO, new BigDecimal("1.20"));
+
+        BigDecimal rate = aggregator(properties(Duration.ofMillis(200)), primary, secondary).getRate("USD", "EUR", BigDecimal.ONE);
+
+        assertThat(rate).isEqualTo(new BigDecimal("1.10"));
+        assertThat(secondary.calls.get()).isZero();
+    }
+
+    @Test
+    void slowPrimaryIsHedged() {
+        FakeProvider primary = new FakeProvider("primary", Duration.ofSeconds(1), new BigDecimal("1.10"));
+        FakeProvider secondary = new FakeProvider("secondary", Duration.ZERO, new BigDecimal("1.20"));
+
+        long start = System.nanoTime();
+        BigDecimal rate = aggregator(properties(Duration.ofMillis(50)), primary, secondary).getRate("USD", "EUR", BigDecimal.ONE);
+
+        assertThat(rate).isEqualTo(new BigDecimal("1.20"));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(800));
+    }
+
+    @Test
+    void failingPrimaryFailsOverImmediately() {
+        FakeProvider primary = new FakeProvider("primary", Duration.ZERO, null);
+        FakeProvider secondary = new FakeProvider("secondary", Duration.ZERO, new BigDecimal("1.20"));
+
+        BigDecimal rate = aggregator(properties(Duration.ofSeconds(5)), primary, secondary).getRate("USD", "EUR", BigDecimal.ONE);
+
+        assertThat(rate).isEqualTo(new BigDecimal("1.20"));
+    }
+
+    @Test
+    void allProvidersFailing() {
+        FakeProvider primary = new FakeProvider("primary", Duration.ZERO, null);
+        FakeProvider secondary = new FakeProvider("secondary", Duration.ZERO, null);
+
+        assertThatThrownBy(() -> aggregator(properties(Duration.ofMillis(50)), primary, secondary).getRate("USD", "EUR", BigDecimal.ONE))
+                .isInstanceOf(CoinNotFoundException.class)
+                .hasMessage("Exchange EUR not found for USD");
+    }
+
+    @Test
+    void providersTooSlow() {
+        QuoteProviderProperties properties = properties(Duration.ofMillis(20));
+        properties.setTimeout(Duration.ofMillis(100));
+        FakeProvider primary = new FakeProvider("primary", Duration.ofSeconds(1), BigDecimal.ONE);
+
+        assertThatThrownBy(() -> aggregator(properties, primary).getRate("USD", "EUR", BigDecimal.ONE))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessage("Quote providers did not answer in time");
+    }
+
+    @Test
+    void saturatedExecutorFailsFast() throws Exception {
+        ThreadPoolExecutor saturated = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturated.execute(() -> awaitQuietly(release));
+            saturated.execute(() -> awaitQuietly(release));
+            FakeProvider primary = new FakeProvider("primary", Duration.ZERO, BigDecimal.ONE);
+            QuoteAggregator aggregator = new QuoteAggregator(List.of(primary), properties(Duration.ofMillis(50)), saturated);
+
+            assertThatThrownBy(() -> aggregator.getRate("USD", "EUR", BigDecimal.ONE))
+                    .isInstanceOf(UpstreamUnavailableException.class)
+                    .hasMessage("Quote providers are saturated, try again later");
+            assertThat(primary.calls.get()).isZero();
+        } finally {
+            release.countDown();
+            saturated.shutdownNow();
+        }
+    }
+
+    @Test
+    void highValueConversionTakesMedian() {
+        QuoteProviderProperties properties = properties(Duration.ofSeconds(1));
+        properties.getMedian().setMinAmount(new BigDecimal("1000"));
+        FakeProvider first = new FakeProvider("first", Duration.ZERO, new BigDecimal("1.30"));
+        FakeProvider second = new FakeProvider("second", Duration.ZERO, new BigDecimal("1.10"));
+        FakeProvider third = new FakeProvider("third", Duration.ZERO, new BigDecimal("1.20"));
+        QuoteAggregator aggregator = aggregator(properties, first, second, third);
+
+        assertThat(aggregator.getRate("USD", "EUR", new BigDecimal("5000"))).isEqualTo(new BigDecimal("1.20"));
+        assertThat(aggregator.getRate("USD", "EUR", BigDecimal.TEN)).isEqualTo(new BigDecimal("1.30"));
+    }
+
+    @Test
+    void medianIgnoresFailedProviders() {
+        QuoteProviderProperties properties = properties(Duration.ofSeconds(1));
+        properties.getMedian().setMinAmount(BigDecimal.ONE);
+        FakeProvider first = new FakeProvider("first", Duration.ZERO, new BigDecimal("1.30"));
+        FakeProvider second = new FakeProvider("second", Duration.ZERO, null);
+        FakeProvider third = new FakeProvider("third", Duration.ZERO, new BigDecimal("1.10"));
+
+        assertThat(aggregator(properties, first, second, third).getRate("USD", "EUR", BigDecimal.TEN))
+                .isEqualByComparingTo("1.20");
+    }
+
+    @Test
+    void hedgeDelayFollowsPrimaryLatency() {
+        QuoteProviderProperties properties = properties(Duration.ofSeconds(1));
+        properties.getHedge().setMinDelay(Duration.ofMillis(1));
+        FakeProvider primary = new FakeProvider("primary", Duration.ofMillis(5), BigDecimal.ONE);
+        QuoteAggregator aggregator = aggregator(properties, primary, new FakeProvider("secondary", Duration.ZERO, BigDecimal.TEN));
+
+        assertThat(aggregator.hedgeDelayNanos()).isEqualTo(Duration.ofSeconds(1).toNanos());
+        for (int i = 0; i < 20; i++) {
+            aggregator.getRate("USD", "EUR", BigDecimal.ONE);
+        }
+
+        assertThat(aggregator.hedgeDelayNanos()).isLessThan(Duration.ofMillis(500).toNanos());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private QuoteProviderProperties properties(Duration maxHedgeDelay) {
+        QuoteProviderProperties properties = new QuoteProviderProperties();
+        properties.getHedge().setMaxDelay(maxHedgeDelay);
+        properties.getHedge().setMinDelay(Duration.ofMillis(1).compareTo(maxHedgeDelay) < 0 ? Duration.ofMillis(1) : maxHedgeDelay);
+        return properties;
+    }
+
+    private QuoteAggregator aggregator(QuoteProviderProperties properties, QuoteProvider... providers) {
+        return new QuoteAggregator(List.of(providers), properties, executor);
+    }
+
+    private static final class FakeProvider implements QuoteProvider {
+
+        private final String name;
+        private final Duration delay;
+        private final BigDecimal rate;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private FakeProvider(String name, Duration delay, BigDecimal rate) {
+            this.name = name;
+            this.delay = delay;
+            this.rate = rate;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public BigDecimal getRate(String from, String to) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (rate == null) {
+                throw new CoinNotFoundException(String.format("Exchange %s not found for %s", to, from));
+            }
+            return rate;
+        }
+    }
+}
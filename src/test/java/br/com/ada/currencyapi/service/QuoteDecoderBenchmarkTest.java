@@ -0,0 +1,106 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+
+/**
+ * Decode cost of quote API responses carrying several pairs: full data binding into
+ * {@link CurrencyQuote}, as the default Feign decoder does, against {@link QuoteDecoder} reading every
+ * pair and reading only the one the caller asked for.
+ */
+@Tag("benchmark")
+public class QuoteDecoderBenchmarkTest {
+
+    private static final int ROUNDS = 20_000;
+    private static final TypeReference<Map<String, CurrencyQuote>> QUOTES = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    void compareDecoders() throws Exception {
+        for (int pairs : new int[] {1, 10, 50}) {
+            byte[] body = objectMapper.writeValueAsBytes(payload(pairs));
+            Set<String> all = objectMapper.readValue(body, QUOTES).keySet();
+            String first = all.stream().sorted().findFirst().orElseThrow();
+
+            assertThat(QuoteDecoder.read(jsonFactory.createParser(body), Set.of(first)).get(first).low())
+                    .isEqualByComparingTo(objectMapper.readValue(body, QUOTES).get(first).low());
+
+            measure("databind", pairs, body, () -> objectMapper.readValue(body, QUOTES));
+            measure("lean-all", pairs, body, () -> read(body, all));
+            measure("lean-one", pairs, body, () -> read(body, Set.of(first)));
+        }
+    }
+
+    private Map<String, CurrencyQuote> read(byte[] body, Set<String> pairs) throws Exception {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return QuoteDecoder.read(parser, pairs);
+        }
+    }
+
+    private static void measure(String decoder, int pairs, byte[] body, Decode decode) throws Exception {
+        for (int i = 0; i < ROUNDS; i++) {
+            decode.run();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            decode.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+        System.out.printf("decoder=%s pairs=%d bytes=%d nsPerResponse=%d bytesAllocatedPerResponse=%d%n",
+                decoder, pairs, body.length, elapsed / ROUNDS, allocated / ROUNDS);
+    }
+
+    private static Map<String, Map<String, String>> payload(int pairs) {
+        String[] codes = {"USD", "EUR", "GBP", "JPY", "ARS", "CAD", "AUD", "CHF", "CNY", "MXN"};
+        return IntStream.range(0, pairs).boxed().collect(Collectors.toMap(
+                i -> codes[i % codes.length] + "B" + (char) ('A' + i / codes.length) + "L",
+                i -> {
+                    BigDecimal low = new BigDecimal("5.0987").add(BigDecimal.valueOf(i, 4));
+                    Map<String, String> quote = new LinkedHashMap<>();
+                    quote.put("code", codes[i % codes.length]);
+                    quote.put("codein", "B" + (char) ('A' + i / codes.length) + "L");
+                    quote.put("name", "Dólar Americano/Real Brasileiro");
+                    quote.put("high", low.add(new BigDecimal("0.0250")).toPlainString());
+                    quote.put("low", low.toPlainString());
+                    quote.put("varBid", "0.0123");
+                    quote.put("pctChange", "0.24");
+                    quote.put("bid", low.add(new BigDecimal("0.0113")).toPlainString());
+                    quote.put("ask", low.add(new BigDecimal("0.0123")).toPlainString());
+                    quote.put("timestamp", "1700000000");
+                    quote.put("create_date", "2023-11-14 19:13:20");
+                    return quote;
+                },
+                (a, b) -> a,
+                LinkedHashMap::new));
+    }
+
+    @FunctionalInterface
+    private interface Decode {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+import feign.Request;
+import feign.Response;
+import feign.codec.DecodeException;
+
+public class QuoteDecoderUnitTest {
+
+    private static final Type QUOTES = new TypeReference<Map<String, CurrencyQuote>>() {}.getType();
+
+    private static final String BODY = """
+            {
+              "USDBRL": {"code": "USD", "codein": "BRL", "name": "Dólar Americano/Real Brasileiro",
+                         "high": "5.1234", "low": "5.0987", "varBid": "0.0123", "pctChange": "0.24",
+                         "bid": "5.1100", "ask": "5.1110", "timestamp": "1700000000", "create_date": "2023-11-14 19:13:20"},
+              "EURBRL": {"code": "EUR", "codein": "BRL", "high": "5.60", "low": 5.51, "extra": {"nested": [1, 2]}},
+              "GBPBRL": {"code": "GBP", "codein": "BRL", "low": "6.20"}
+            }
+            """;
+
+    private final QuoteDecoder decoder = new QuoteDecoder();
+
+    @Test
+    void decodesOnlyTheRequestedPairs() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, CurrencyQuote> quotes = (Map<String, CurrencyQuote>) decoder.decode(response("/json/last/USD-BRL,EUR-BRL", BODY), QUOTES);
+
+        assertThat(quotes).containsOnlyKeys("USDBRL", "EURBRL");
+        assertThat(quotes.get("USDBRL").code()).isEqualTo("USD");
+        assertThat(quotes.get("USDBRL").codein()).isEqualTo("BRL");
+        assertThat(quotes.get("USDBRL").low()).isEqualByComparingTo("5.0987");
+        assertThat(quotes.get("EURBRL").low()).isEqualByComparingTo("5.51");
+    }
+
+    @Test
+    void skipsFieldsTheCallerDoesNotRead() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, CurrencyQuote> quotes = (Map<String, CurrencyQuote>) decoder.decode(response("/json/last/USD-BRL", BODY), QUOTES);
+
+        CurrencyQuote quote = quotes.get("USDBRL");
+        assertThat(quote.high()).isEqualByComparingTo("5.1234");
+        assertThat(quote.pctChange()).isEqualTo("0.24");
+        assertThat(quote.varBid()).isNull();
+        assertThat(quote.bid()).isNull();
+        assertThat(quote.name()).isNull();
+        assertThat(quote.create_date()).isNull();
+    }
+
+    @Test
+    void decodesEveryPairWhenThePathNamesNone() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, CurrencyQuote> quotes = (Map<String, CurrencyQuote>) decoder.decode(response("/json/all", BODY), QUOTES);
+
+        assertThat(quotes).containsOnlyKeys("USDBRL", "EURBRL", "GBPBRL");
+    }
+
+    @Test
+    void readsEncodedPairLists() {
+        assertThat(QuoteDecoder.requestedPairs("https://economia.awesomeapi.com.br/json/last/USD-BRL%2CEUR-BRL?token=x"))
+                .containsExactlyInAnyOrder("USDBRL", "EURBRL");
+    }
+
+    @Test
+    void emptyBody() throws Exception {
+        Response response = Response.builder()
+                .status(200)
+                .request(request("/json/last/USD-BRL"))
+                .build();
+
+        assertThat(decoder.decode(response, QUOTES)).isEqualTo(Map.of());
+    }
+
+    @Test
+    void malformedBody() {
+        assertThatThrownBy(() -> decoder.decode(response("/json/last/USD-BRL", "[1, 2]"), QUOTES))
+                .isInstanceOf(DecodeException.class)
+                .hasMessageContaining("Malformed quote response");
+    }
+
+    @Test
+    void invalidDecimal() {
+        assertThatThrownBy(() -> decoder.decode(response("/json/last/USD-BRL", """
+                {"USDBRL": {"code": "USD", "codein": "BRL", "low": "n/a"}}"""), QUOTES))
+                .isInstanceOf(DecodeException.class)
+                .hasMessageContaining("Invalid decimal: n/a");
+    }
+
+    @Test
+    void skipsCodesThatAreNotScalars() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, CurrencyQuote> quotes = (Map<String, CurrencyQuote>) decoder.decode(response("/json/last/USD-BRL", """
+                {"USDBRL": {"code": {"iso": "USD"}, "codein": ["BRL"], "low": "5.09"}}"""), QUOTES);
+
+        assertThat(quotes.get("USDBRL").code()).isNull();
+        assertThat(quotes.get("USDBRL").codein()).isNull();
+        assertThat(quotes.get("USDBRL").low()).isEqualByComparingTo("5.09");
+    }
+
+    @Test
+    void unsupportedType() {
+        assertThatThrownBy(() -> decoder.decode(response("/json/last/USD-BRL", BODY), BigDecimal.class))
+                .isInstanceOf(DecodeException.class);
+    }
+
+    private static Response response(String path, String body) {
+        return Response.builder()
+                .status(200)
+                .request(request(path))
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private static Request request(String path) {
+        return Request.create(Request.HttpMethod.GET, "https://economia.awesomeapi.com.br" + path, Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
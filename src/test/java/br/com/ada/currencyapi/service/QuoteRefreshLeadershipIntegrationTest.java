@@ -0,0 +1,187 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.ada.currencyapi.CurrencyApiApplication;
+import br.com.ada.currencyapi.domain.UpstreamQuote;
+import br.com.ada.currencyapi.repository.QuoteDemandJdbcRepository;
+import br.com.ada.currencyapi.repository.QuoteLeaseJdbcRepository;
+import br.com.ada.currencyapi.repository.UpstreamQuoteJdbcRepository;
+import br.com.ada.currencyapi.support.StubQuoteServer;
+
+/**
+ * Several application contexts sharing one H2 database stand in for a cluster.
+ */
+public class QuoteRefreshLeadershipIntegrationTest {
+
+    private static final List<String> PAIRS = List.of("USD-BRL", "EUR-BRL", "GBP-BRL", "JPY-BRL");
+    private static final int SHARDS = 4;
+    private static final Duration INTERVAL = Duration.ofMillis(300);
+    private static final Duration LEASE = Duration.ofSeconds(1);
+
+    private final String database = "jdbc:h2:mem:leadership-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final StubQuoteServer upstream = StubQuoteServer.start(Duration.ZERO)
+            .quote("USD", "BRL", new BigDecimal("5.10"))
+            .quote("EUR", "BRL", new BigDecimal("5.50"))
+            .quote("GBP", "BRL", new BigDecimal("6.20"))
+            .quote("JPY", "BRL", new BigDecimal("0.034"));
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        upstream.close();
+    }
+
+    @Test
+    void eachShardHasOneLeaderAndFailsOverWhenItStops() throws Exception {
+        for (String node : List.of("node-a", "node-b", "node-c")) {
+            nodes.add(start(node));
+        }
+        UpstreamQuoteJdbcRepository quotes = nodes.get(0).getBean(UpstreamQuoteJdbcRepository.class);
+
+        await(() -> PAIRS.stream().allMatch(pair -> quotes.findAll(PAIRS).containsKey(pair)));
+
+        Set<Integer> owned = new HashSet<>();
+        for (ConfigurableApplicationContext node : nodes) {
+            for (Integer shard : node.getBean(QuoteRefresher.class).getOwnedShards()) {
+                assertThat(owned.add(shard)).as("shard %d has a single leader", shard).isTrue();
+            }
+        }
+
+        int before = upstream.requests();
+        Thread.sleep(2_000);
+        int polled = upstream.requests() - before;
+        // one poller per pair: about PAIRS * 2s / INTERVAL, against three times as many with every node polling
+        assertThat(polled).isLessThanOrEqualTo(PAIRS.size() * (int) (2_000 / INTERVAL.toMillis() + 2));
+
+        UpstreamQuote usd = quotes.find("USD", "BRL").orElseThrow();
+        ConfigurableApplicationContext leader = nodes.stream()
+                .filter(node -> node.getBean(QuoteRefresher.class).getNodeId().equals(usd.getFetchedBy()))
+                .findFirst()
+                .orElseThrow();
+        nodes.remove(leader);
+        leader.close();
+        Instant stopped = Instant.now();
+        UpstreamQuoteJdbcRepository survivors = nodes.get(0).getBean(UpstreamQuoteJdbcRepository.class);
+
+        await(() -> survivors.find("USD", "BRL")
+                .filter(quote -> !quote.getFetchedBy().equals(usd.getFetchedBy()) && quote.getFetchedAt().isAfter(stopped))
+                .isPresent());
+        int shard = QuoteRefresher.shardOf("USD-BRL", SHARDS);
+        assertThat(nodes).filteredOn(node -> node.getBean(QuoteRefresher.class).getOwnedShards().contains(shard)).hasSize(1);
+    }
+
+    @Test
+    void leaseGoesToAnotherNodeOnlyOnceItRunsOut() {
+        nodes.add(start("node-a"));
+        QuoteLeaseJdbcRepository leases = nodes.get(0).getBean(QuoteLeaseJdbcRepository.class);
+        // the column keeps microseconds, so the boundary below is exact
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Duration lease = Duration.ofSeconds(10);
+
+        assertThat(leases.tryAcquire(99, "x", now, lease)).isTrue();
+        assertThat(leases.tryAcquire(99, "y", now.plusSeconds(1), lease)).isFalse();
+        assertThat(leases.tryAcquire(99, "x", now.plusSeconds(5), lease)).isTrue();
+        assertThat(leases.tryAcquire(99, "y", now.plusSeconds(14), lease)).isFalse();
+        assertThat(leases.tryAcquire(99, "y", now.plusSeconds(15), lease)).isTrue();
+        assertThat(leases.tryAcquire(99, "x", now.plusSeconds(16), lease)).isFalse();
+
+        leases.release(99, "y", now.plusSeconds(17));
+        assertThat(leases.tryAcquire(99, "x", now.plusSeconds(17), lease)).isTrue();
+    }
+
+    @Test
+    void fencedWritesNeedTheLease() {
+        nodes.add(start("node-a"));
+        QuoteLeaseJdbcRepository leases = nodes.get(0).getBean(QuoteLeaseJdbcRepository.class);
+        UpstreamQuoteJdbcRepository quotes = nodes.get(0).getBean(UpstreamQuoteJdbcRepository.class);
+        Instant now = Instant.now();
+
+        assertThat(leases.tryAcquire(98, "x", now, Duration.ofSeconds(10))).isTrue();
+        assertThat(quotes.write(98, quote("x", "0.0055", now))).isTrue();
+        assertThat(quotes.write(98, quote("y", "0.0099", now))).isFalse();
+        assertThat(quotes.write(98, quote("x", "0.0056", now.plusSeconds(11)))).isFalse();
+
+        UpstreamQuote stored = quotes.find("ARS", "BRL").orElseThrow();
+        assertThat(stored.getRate()).isEqualByComparingTo("0.0055");
+        assertThat(stored.getVariance()).isEqualTo(1e-9);
+        assertThat(stored.getNextRefreshAt()).isCloseTo(now.plusSeconds(30), within(1, ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void demandSumsTheRecentReportsOfEveryNode() {
+        nodes.add(start("node-a"));
+        QuoteDemandJdbcRepository demand = nodes.get(0).getBean(QuoteDemandJdbcRepository.class);
+        Instant now = Instant.now();
+
+        demand.report("x", Map.of("ARS-BRL", 0.5, "CLP-BRL", 0.25), now);
+        demand.report("y", Map.of("ARS-BRL", 1.0), now.minusSeconds(60));
+        demand.report("y", Map.of("ARS-BRL", 1.5), now);
+        demand.report("z", Map.of("ARS-BRL", 4.0), now.minusSeconds(60));
+
+        assertThat(demand.findTotals(List.of("ARS-BRL", "CLP-BRL", "MXN-BRL"), now.minusSeconds(30)))
+                .isEqualTo(Map.of("ARS-BRL", 2.0, "CLP-BRL", 0.25));
+
+        demand.delete("y");
+        assertThat(demand.findTotals(List.of("ARS-BRL"), now.minusSeconds(30))).isEqualTo(Map.of("ARS-BRL", 0.5));
+    }
+
+    private static UpstreamQuote quote(String owner, String rate, Instant now) {
+        return UpstreamQuote.builder()
+                .pair("ARS-BRL")
+                .fromCurrency("ARS")
+                .toCurrency("BRL")
+                .rate(new BigDecimal(rate))
+                .fetchedAt(now)
+                .fetchedBy(owner)
+                .variance(1e-9)
+                .nextRefreshAt(now.plusSeconds(30))
+                .build();
+    }
+
+    private ConfigurableApplicationContext start(String node) {
+        return new SpringApplicationBuilder(CurrencyApiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + database,
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--currency.client.url=" + upstream.url(),
+                        "--currency.client.limiter.enabled=false",
+                        "--currency.providers.order=awesomeapi",
+                        "--currency.warmup.enabled=false",
+                        "--currency.grpc.enabled=false",
+                        "--currency.quotes.refresh.enabled=true",
+                        "--currency.quotes.refresh.node-id=" + node,
+                        "--currency.quotes.refresh.pairs=" + String.join(",", PAIRS),
+                        "--currency.quotes.refresh.shards=" + SHARDS,
+                        "--currency.quotes.refresh.interval=" + INTERVAL.toMillis() + "ms",
+                        "--currency.quotes.refresh.lease=" + LEASE.toMillis() + "ms");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 15s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import br.com.ada.currencyapi.config.QuoteRefreshProperties;
+import br.com.ada.currencyapi.domain.UpstreamQuote;
+import br.com.ada.currencyapi.repository.QuoteDemandJdbcRepository;
+import br.com.ada.currencyapi.repository.QuoteLeaseJdbcRepository;
+import br.com.ada.currencyapi.repository.UpstreamQuoteJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class QuoteRefresherUnitTest {
+
+    @Mock
+    private QuoteLeaseJdbcRepository leaseRepository;
+
+    @Mock
+    private UpstreamQuoteJdbcRepository quoteRepository;
+
+    @Mock
+    private QuoteDemandJdbcRepository demandRepository;
+
+    @Mock
+    private QuoteAggregator quoteAggregator;
+
+    @Mock
+    private PairUsageStats pairUsageStats;
+
+    @Mock
+    private QuoteVolatility quoteVolatility;
+
+    private final QuoteRefreshProperties properties = new QuoteRefreshProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private QuoteRefresher refresher;
+
+    @BeforeEach
+    void setup() {
+        properties.setEnabled(true);
+        properties.setNodeId("node-a");
+        properties.setPairs(List.of("USD-BRL", "EUR-BRL"));
+        properties.setShards(1);
+        properties.setInterval(Duration.ofSeconds(60));
+        refresher = new QuoteRefresher(properties, leaseRepository, quoteRepository, demandRepository, quoteAggregator, pairUsageStats, quoteVolatility,
+                meterRegistry, new MockEnvironment());
+    }
+
+    @Test
+    void refreshesDuePairsOfHeldShards() {
+        when(leaseRepository.tryAcquire(eq(0), eq("node-a"), any(), eq(properties.getLease()))).thenReturn(true);
+        when(quoteRepository.findAll(List.of("USD-BRL", "EUR-BRL")))
+                .thenReturn(Map.of("EUR-BRL", quote("EUR-BRL", Instant.now().minusSeconds(5))));
+        when(quoteAggregator.getRate("USD", "BRL", null)).thenReturn(new BigDecimal("5.10"));
+        when(quoteRepository.write(eq(0), argThat(quote -> quote.getPair().equals("USD-BRL")
+                && quote.getFetchedBy().equals("node-a")
+                && quote.getRate().equals(new BigDecimal("5.10"))))).thenReturn(true);
+
+        refresher.tick();
+
+        assertThat(refresher.getOwnedShards()).containsExactly(0);
+        verify(quoteAggregator, never()).getRate(eq("EUR"), any(), any());
+        assertThat(meterRegistry.counter("currency.quotes.refresh", "result", "ok").count()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesShardsHeldByOtherNodes() {
+        when(leaseRepository.tryAcquire(anyInt(), any(), any(), any())).thenReturn(false);
+
+        refresher.tick();
+
+        assertThat(refresher.getOwnedShards()).isEmpty();
+        verify(quoteRepository, never()).findAll(anyCollection());
+        verify(quoteAggregator, never()).getRate(any(), any(), any());
+    }
+
+    @Test
+    void fencedWriteDropsTheShard() {
+        when(leaseRepository.tryAcquire(eq(0), eq("node-a"), any(), any())).thenReturn(true);
+        when(quoteRepository.findAll(anyCollection())).thenReturn(Map.of());
+        when(quoteAggregator.getRate(any(), any(), any())).thenReturn(BigDecimal.ONE);
+        when(quoteRepository.write(anyInt(), any())).thenReturn(false);
+
+        refresher.tick();
+
+        assertThat(refresher.getOwnedShards()).isEmpty();
+        verify(quoteAggregator, times(1)).getRate(any(), any(), any());
+        assertThat(meterRegistry.counter("currency.quotes.refresh", "result", "fenced").count()).isEqualTo(1);
+    }
+
+    @Test
+    void upstreamFailureMovesOnToTheNextPair() {
+        when(leaseRepository.tryAcquire(eq(0), eq("node-a"), any(), any())).thenReturn(true);
+        when(quoteRepository.findAll(anyCollection())).thenReturn(Map.of());
+        when(quoteAggregator.getRate("USD", "BRL", null)).thenThrow(new IllegalStateException("down"));
+        when(quoteAggregator.getRate("EUR", "BRL", null)).thenReturn(new BigDecimal("5.50"));
+        when(quoteRepository.write(anyInt(), argThat(quote -> quote.getFromCurrency().equals("EUR")))).thenReturn(true);
+
+        refresher.tick();
+
+        assertThat(meterRegistry.counter("currency.quotes.refresh", "result", "failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("currency.quotes.refresh", "result", "ok").count()).isEqualTo(1);
+    }
+
+    @Test
+    void slowUpstreamCallsRenewTheLeaseAndEndTheRound() {
+        // a round gets 100ms, each upstream call takes 150ms
+        properties.setLease(Duration.ofMillis(300));
+        properties.setPairs(List.of("USD-BRL", "EUR-BRL", "GBP-BRL"));
+        when(leaseRepository.tryAcquire(eq(0), eq("node-a"), any(), any())).thenReturn(true);
+        when(quoteRepository.findAll(anyCollection())).thenReturn(Map.of());
+        when(quoteAggregator.getRate(any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return BigDecimal.ONE;
+        });
+        when(quoteRepository.write(anyInt(), any())).thenReturn(true);
+
+        refresher.tick();
+
+        verify(leaseRepository, times(2)).tryAcquire(eq(0), eq("node-a"), any(), any());
+        verify(quoteAggregator, times(1)).getRate(any(), any(), any());
+        verify(quoteRepository, times(1)).write(eq(0), any());
+        assertThat(refresher.getOwnedShards()).containsExactly(0);
+    }
+
+    @Test
+    void leaseLostDuringASlowCallSkipsTheWrite() {
+        properties.setLease(Duration.ofMillis(300));
+        when(leaseRepository.tryAcquire(eq(0), eq("node-a"), any(), any())).thenReturn(true, false);
+        when(quoteRepository.findAll(anyCollection())).thenReturn(Map.of());
+        when(quoteAggregator.getRate(any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return BigDecimal.ONE;
+        });
+
+        refresher.tick();
+
+        assertThat(refresher.getOwnedShards()).isEmpty();
+        verify(quoteRepository, never()).write(anyInt(), any());
+    }
+
+    @Test
+    void findFreshIgnoresStaleQuotes() {
+        properties.setMaxAge(Duration.ofSeconds(30));
+        when(quoteRepository.find("USD", "BRL")).thenReturn(Optional.of(quote("USD-BRL", Instant.now().minusSeconds(5))));
+        when(quoteRepository.find("EUR", "BRL")).thenReturn(Optional.of(quote("EUR-BRL", Instant.now().minusSeconds(60))));
+
+        assertThat(refresher.findFresh("USD", "BRL")).contains(new BigDecimal("5.10"));
+        assertThat(refresher.findFresh("EUR", "BRL")).isEmpty();
+    }
+
+    @Test
+    void findFreshIsOffWhenRefreshIsDisabled() {
+        properties.setEnabled(false);
+
+        assertThat(refresher.findFresh("USD", "BRL")).isEmpty();
+        verify(quoteRepository, never()).find(any(), any());
+    }
+
+    @Test
+    void adaptiveIntervalFollowsVolatilityAndDemand() {
+        adaptive();
+
+        // 10 bp drift at 1e-9 per second takes 1000s, halved at the busy rate
+        assertThat(refresher.interval(1e-9, 1.0)).isEqualTo(Duration.ofSeconds(500));
+        assertThat(refresher.interval(1e-5, 1.0)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(refresher.interval(1e-5, 0.0)).isEqualTo(Duration.ofMinutes(15));
+        assertThat(refresher.interval(null, 1.0)).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void fixedIntervalIgnoresVolatility() {
+        assertThat(refresher.interval(1e-5, 1.0)).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void adaptiveRoundsReportLocalDemandAndPlanForTheClusters() {
+        adaptive();
+        properties.setPairs(List.of("USD-BRL"));
+        UpstreamQuote stored = quote("USD-BRL", Instant.now().minusSeconds(5));
+        stored.setVariance(1e-9);
+        when(pairUsageStats.upstreamRate("USD", "BRL", properties.getAdaptive().getDemandWindow())).thenReturn(0.25);
+        when(leaseRepository.tryAcquire(eq(0), eq("node-a"), any(), any())).thenReturn(true);
+        when(quoteRepository.findAll(List.of("USD-BRL"))).thenReturn(Map.of("USD-BRL", stored));
+        // this node converts a quarter of the pair's traffic
+        when(demandRepository.findTotals(eq(List.of("USD-BRL")), any())).thenReturn(Map.of("USD-BRL", 1.0));
+
+        refresher.tick();
+
+        verify(demandRepository).report(eq("node-a"), eq(Map.of("USD-BRL", 0.25)), any());
+        verify(quoteAggregator, never()).getRate(any(), any(), any());
+        // planned for the cluster's demand: 1000s halved
+        assertThat(meterRegistry.get("currency.quotes.refresh.planned").gauge().value()).isCloseTo(1 / 500.0, within(1e-9));
+    }
+
+    @Test
+    void stoppingWithdrawsTheNodesDemand() {
+        adaptive();
+
+        refresher.start();
+        refresher.stop();
+
+        verify(demandRepository).delete("node-a");
+    }
+
+    @Test
+    void varianceAveragesMovesAndTheDaysRange() {
+        adaptive();
+        UpstreamQuote last = quote("USD-BRL", Instant.now().minusSeconds(100));
+        last.setVariance(1e-8);
+        when(quoteVolatility.variance("USD", "BRL")).thenReturn(OptionalDouble.of(3e-8));
+
+        // no move since the last quote and the day's range average to 1.5e-8, weighted 0.3
+        assertThat(refresher.variance("USD", "BRL", last, new BigDecimal("5.10"), Instant.now()))
+                .isCloseTo(1.15e-8, within(1e-12));
+        assertThat(refresher.variance("EUR", "BRL", null, BigDecimal.ONE, Instant.now())).isNull();
+    }
+
+    @Test
+    void adaptiveRefreshStoresVolatilityAndFreshnessError() {
+        adaptive();
+        properties.setPairs(List.of("USD-BRL"));
+        when(leaseRepository.tryAcquire(eq(0), eq("node-a"), any(), any())).thenReturn(true);
+        when(quoteRepository.findAll(List.of("USD-BRL")))
+                .thenReturn(Map.of("USD-BRL", quote("USD-BRL", Instant.now().minusSeconds(100))));
+        when(quoteAggregator.getRate("USD", "BRL", null)).thenReturn(new BigDecimal("5.151"));
+        when(demandRepository.findTotals(eq(List.of("USD-BRL")), any())).thenReturn(Map.of("USD-BRL", 0.5));
+        when(quoteRepository.write(eq(0), any())).thenReturn(true);
+
+        refresher.tick();
+
+        ArgumentCaptor<UpstreamQuote> written = ArgumentCaptor.forClass(UpstreamQuote.class);
+        verify(quoteRepository).write(eq(0), written.capture());
+        double move = Math.log(5.151 / 5.10);
+        assertThat(written.getValue().getVariance()).isCloseTo(move * move / 100, within(1e-9));
+        assertThat(Duration.between(written.getValue().getFetchedAt(), written.getValue().getNextRefreshAt()))
+                .isEqualTo(Duration.ofSeconds(5));
+        assertThat(meterRegistry.summary("currency.quotes.freshness.error").max()).isCloseTo(0.01, within(1e-9));
+        assertThat(meterRegistry.get("currency.quotes.refresh.planned").gauge().value()).isCloseTo(0.2, within(1e-9));
+    }
+
+    @Test
+    void adaptiveFindFreshTrustsThePlannedRefresh() {
+        adaptive();
+        UpstreamQuote quote = quote("USD-BRL", Instant.now().minus(Duration.ofMinutes(10)));
+        quote.setNextRefreshAt(Instant.now().plus(Duration.ofMinutes(5)));
+        when(quoteRepository.find("USD", "BRL")).thenReturn(Optional.of(quote));
+
+        assertThat(refresher.findFresh("USD", "BRL")).contains(new BigDecimal("5.10"));
+
+        quote.setNextRefreshAt(Instant.now().minus(Duration.ofMinutes(1)));
+        assertThat(refresher.findFresh("USD", "BRL")).isEmpty();
+    }
+
+    @Test
+    void shardsAreStableAcrossNodes() {
+        assertThat(QuoteRefresher.shardOf("USD-BRL", 4)).isEqualTo(Math.floorMod("USD-BRL".hashCode(), 4));
+        assertThat(QuoteRefresher.shardOf("USD-BRL", 1)).isZero();
+    }
+
+    private void adaptive() {
+        properties.getAdaptive().setEnabled(true);
+        properties.getAdaptive().setTolerance(0.001);
+    }
+
+    private static UpstreamQuote quote(String pair, Instant fetchedAt) {
+        return UpstreamQuote.builder()
+                .pair(pair)
+                .fromCurrency(pair.substring(0, 3))
+                .toCurrency(pair.substring(4))
+                .rate(new BigDecimal("5.10"))
+                .fetchedAt(fetchedAt)
+                .fetchedBy("node-b")
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+
+public class QuoteVolatilityUnitTest {
+
+    private final QuoteVolatility volatility = new QuoteVolatility();
+
+    @Test
+    void estimatesFromTheDaysRange() {
+        volatility.observe("USD", "BRL", CurrencyQuote.builder()
+                .high(new BigDecimal("5.1510"))
+                .low(new BigDecimal("5.1000"))
+                .pctChange("3.5")
+                .build());
+
+        double range = Math.log(5.151 / 5.1);
+        assertThat(volatility.variance("USD", "BRL").orElseThrow())
+                .isCloseTo(range * range / (4 * Math.log(2)) / 86_400, within(1e-15));
+    }
+
+    @Test
+    void fallsBackToTheDaysChange() {
+        volatility.observe("EUR", "BRL", CurrencyQuote.builder().low(new BigDecimal("5.51")).pctChange("-1").build());
+
+        double change = Math.log(0.99);
+        assertThat(volatility.variance("EUR", "BRL").orElseThrow()).isCloseTo(change * change / 86_400, within(1e-15));
+    }
+
+    @Test
+    void ignoresQuotesWithoutMovement() {
+        volatility.observe("GBP", "BRL", CurrencyQuote.builder().low(new BigDecimal("6.20")).pctChange("n/a").build());
+
+        assertThat(volatility.variance("GBP", "BRL")).isEmpty();
+        assertThat(volatility.variance("JPY", "BRL")).isEmpty();
+    }
+}
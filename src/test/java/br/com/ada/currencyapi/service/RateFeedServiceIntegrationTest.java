@@ -0,0 +1,67 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.domain.RateUpdateRequest;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+
+@SpringBootTest
+public class RateFeedServiceIntegrationTest {
+
+    @Autowired
+    private RateFeedService rateFeedService;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    void updateInsertsAndOverwritesRates() {
+        currencyRepository.save(Currency.builder().name("USD").exchanges(new HashMap<>(Map.of("BRL", new BigDecimal("4.90")))).build());
+        currencyRepository.save(Currency.builder().name("EUR").exchanges(new HashMap<>()).build());
+
+        int applied = rateFeedService.update(List.of(
+                new RateUpdateRequest("USD", "BRL", new BigDecimal("5.10")),
+                new RateUpdateRequest("USD", "EUR", new BigDecimal("0.92")),
+                new RateUpdateRequest("EUR", "USD", new BigDecimal("1.08"))));
+
+        assertThat(applied).isEqualTo(3);
+        assertThat(currencyRepository.findByName("USD").getExchanges())
+                .containsEntry("BRL", new BigDecimal("5.10"))
+                .containsEntry("EUR", new BigDecimal("0.92"));
+        assertThat(currencyRepository.findByName("EUR").getExchanges())
+                .containsEntry("USD", new BigDecimal("1.08"));
+    }
+
+    @Test
+    void updateUnknownCoinWritesNothing() {
+        currencyRepository.save(Currency.builder().name("USD").exchanges(new HashMap<>()).build());
+
+        assertThatThrownBy(() -> rateFeedService.update(List.of(
+                new RateUpdateRequest("USD", "BRL", new BigDecimal("5.10")),
+                new RateUpdateRequest("ETH", "USD", new BigDecimal("3000")))))
+                .isInstanceOf(CoinNotFoundException.class)
+                .hasMessage("Coin not found: ETH");
+
+        assertThat(currencyRepository.findByName("USD").getExchanges()).isEmpty();
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.ada.currencyapi.domain.RateUpdateRequest;
+import br.com.ada.currencyapi.domain.RatesChangedEvent;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.exception.CurrencyException;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository.ExchangeRate;
+
+@ExtendWith(MockitoExtension.class)
+public class RateFeedServiceUnitTest {
+
+    @Mock
+    private ExchangeJdbcRepository exchangeJdbcRepository;
+
+    @Mock
+    private CompactExchangeStore compactExchangeStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private RateFeedService rateFeedService;
+
+    @BeforeEach
+    void setUp() {
+        rateFeedService = new RateFeedService(exchangeJdbcRepository, compactExchangeStore, transactionManager, eventPublisher, 2);
+    }
+
+    @Test
+    void updateWritesOrderedChunksAndPublishesOnce() {
+        when(exchangeJdbcRepository.findIdsByNames(anyCollection())).thenReturn(Map.of("USD", 2L, "EUR", 1L));
+        List<List<ExchangeRate>> chunks = new ArrayList<>();
+        doAnswer(invocation -> chunks.add(List.copyOf(invocation.getArgument(0))))
+                .when(exchangeJdbcRepository).upsertRates(anyList());
+
+        int applied = rateFeedService.update(List.of(
+                new RateUpdateRequest("USD", "JPY", new BigDecimal("150")),
+                new RateUpdateRequest("USD", "BRL", new BigDecimal("5")),
+                new RateUpdateRequest("EUR", "USD", new BigDecimal("1.08")),
+                new RateUpdateRequest("USD", "BRL", new BigDecimal("5.1"))));
+
+        assertThat(applied).isEqualTo(3);
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).containsExactly(
+                new ExchangeRate(1L, "USD", new BigDecimal("1.08")),
+                new ExchangeRate(2L, "BRL", new BigDecimal("5.1")));
+        assertThat(chunks.get(1)).containsExactly(new ExchangeRate(2L, "JPY", new BigDecimal("150")));
+        verify(transactionManager, times(2)).commit(any());
+        verify(compactExchangeStore).refresh(Set.of(1L, 2L));
+        verify(compactExchangeStore).refresh(Set.of(2L));
+
+        ArgumentCaptor<RatesChangedEvent> event = ArgumentCaptor.forClass(RatesChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().rates()).containsOnlyKeys("EUR", "USD");
+        assertThat(event.getValue().rates().get("USD")).containsEntry("BRL", new BigDecimal("5.1"));
+    }
+
+    @Test
+    void updateRetriesAChunkThatLostAnInsertRace() {
+        when(exchangeJdbcRepository.findIdsByNames(anyCollection())).thenReturn(Map.of("USD", 1L));
+        doThrow(new DuplicateKeyException("exchanges primary key"))
+                .doNothing()
+                .when(exchangeJdbcRepository).upsertRates(anyList());
+
+        assertThat(rateFeedService.update(List.of(new RateUpdateRequest("USD", "BRL", new BigDecimal("5"))))).isEqualTo(1);
+
+        verify(exchangeJdbcRepository, times(2)).upsertRates(anyList());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        verify(eventPublisher).publishEvent(any(RatesChangedEvent.class));
+    }
+
+    @Test
+    void updateGivesUpAfterRepeatedInsertRaces() {
+        when(exchangeJdbcRepository.findIdsByNames(anyCollection())).thenReturn(Map.of("USD", 1L));
+        doThrow(new DuplicateKeyException("exchanges primary key")).when(exchangeJdbcRepository).upsertRates(anyList());
+
+        assertThatThrownBy(() -> rateFeedService.update(List.of(new RateUpdateRequest("USD", "BRL", new BigDecimal("5")))))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        verify(exchangeJdbcRepository, times(RateFeedService.CHUNK_ATTEMPTS)).upsertRates(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void rejectsNonPositiveChunkSize() {
+        assertThatThrownBy(() -> new RateFeedService(exchangeJdbcRepository, compactExchangeStore, transactionManager, eventPublisher, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("chunk-size");
+    }
+
+    @Test
+    void updateEmpty() {
+        assertThat(rateFeedService.update(List.of())).isZero();
+        verify(exchangeJdbcRepository, never()).upsertRates(anyList());
+    }
+
+    @Test
+    void updateCoinNotFound() {
+        when(exchangeJdbcRepository.findIdsByNames(anyCollection())).thenReturn(Map.of());
+
+        assertThatThrownBy(() -> rateFeedService.update(List.of(new RateUpdateRequest("ETH", "USD", BigDecimal.ONE))))
+                .isInstanceOf(CoinNotFoundException.class)
+                .hasMessage("Coin not found: ETH");
+
+        verify(exchangeJdbcRepository, never()).upsertRates(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateInvalid() {
+        assertThatThrownBy(() -> rateFeedService.update(List.of(new RateUpdateRequest("USD", null, BigDecimal.ONE))))
+                .isInstanceOf(CurrencyException.class)
+                .hasMessage("Rate update must have from, to and rate");
+    }
+}
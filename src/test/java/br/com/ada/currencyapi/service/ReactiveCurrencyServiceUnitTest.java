@@ -0,0 +1,95 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.ada.currencyapi.domain.ConversionAudit;
+import br.com.ada.currencyapi.domain.ConvertCurrencyRequest;
+import br.com.ada.currencyapi.domain.ConvertCurrencyResponse;
+import br.com.ada.currencyapi.domain.Currency;
+import br.com.ada.currencyapi.domain.CurrencyQuote;
+import br.com.ada.currencyapi.exception.CoinNotFoundException;
+import br.com.ada.currencyapi.repository.CurrencyRepository;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveCurrencyServiceUnitTest {
+
+    @InjectMocks
+    private ReactiveCurrencyService reactiveCurrencyService;
+
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    @Mock
+    private ReactiveCurrencyClient reactiveCurrencyClient;
+
+    @Mock
+    private ConversionAuditor conversionAuditor;
+
+    private final ConvertCurrencyRequest request = ConvertCurrencyRequest.builder()
+            .from("USD")
+            .to("EUR")
+            .amount(BigDecimal.TEN)
+            .build();
+
+    @Test
+    void convert() {
+        when(currencyService.convert(any(ConvertCurrencyRequest.class))).thenReturn(new ConvertCurrencyResponse(BigDecimal.ONE));
+
+        assertThat(reactiveCurrencyService.convert(request).block().getAmount()).isEqualTo(BigDecimal.ONE);
+    }
+
+    @Test
+    void convertWithAPI() {
+        when(currencyRepository.findByName("USD")).thenReturn(Currency.builder().name("USD").exchanges(new HashMap<>()).build());
+        when(reactiveCurrencyClient.getCurrencyQuote("USD-EUR"))
+                .thenReturn(Mono.just(Map.of("USDEUR", CurrencyQuote.builder().low(new BigDecimal("0.9")).build())));
+
+        assertThat(reactiveCurrencyService.convertAPI(request).block().getAmount()).isEqualByComparingTo("9");
+        verify(conversionAuditor).record("USD", "EUR", BigDecimal.TEN, new BigDecimal("0.9"), ConversionAudit.Source.UPSTREAM);
+    }
+
+    @Test
+    void convertWithAPICoinNotFound() {
+        assertThatThrownBy(() -> reactiveCurrencyService.convertAPI(request).block())
+                .isInstanceOf(CoinNotFoundException.class)
+                .hasMessage("Coin not found: USD");
+    }
+
+    @Test
+    void convertWithAPIExchangeNotFound() {
+        when(currencyRepository.findByName("USD")).thenReturn(Currency.builder().name("USD").exchanges(new HashMap<>()).build());
+        when(reactiveCurrencyClient.getCurrencyQuote("USD-EUR")).thenReturn(Mono.error(new IllegalStateException("404")));
+
+        assertThatThrownBy(() -> reactiveCurrencyService.convertAPI(request).block())
+                .isInstanceOf(CoinNotFoundException.class)
+                .hasMessage("Exchange EUR not found for USD");
+    }
+
+    @Test
+    void convertWithAPIQuoteMissing() {
+        when(currencyRepository.findByName("USD")).thenReturn(Currency.builder().name("USD").exchanges(new HashMap<>()).build());
+        when(reactiveCurrencyClient.getCurrencyQuote("USD-EUR")).thenReturn(Mono.just(Map.of()));
+
+        assertThatThrownBy(() -> reactiveCurrencyService.convertAPI(request).block())
+                .isInstanceOf(CoinNotFoundException.class)
+                .hasMessage("Exchange EUR not found for USD");
+    }
+}
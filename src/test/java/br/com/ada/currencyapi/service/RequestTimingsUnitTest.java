@@ -0,0 +1,74 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class RequestTimingsUnitTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.clear();
+    }
+
+    @Test
+    void noOpOutsideRequest() {
+        assertThat(RequestTimings.time("db", () -> "value")).isEqualTo("value");
+        RequestTimings.add("sql", 1_000_000);
+
+        assertThat(RequestTimings.current()).isNull();
+    }
+
+    @Test
+    void accumulatesPhasesByName() {
+        RequestTimings timings = RequestTimings.start();
+
+        RequestTimings.add("db", 1_000_000);
+        RequestTimings.add("upstream", 2_500_000);
+        RequestTimings.add("db", 500_000);
+
+        assertThat(timings.toHeader(5_000_000)).isEqualTo("db;dur=1.500, upstream;dur=2.500, total;dur=5.000");
+        assertThat(timings.toLog()).isEqualTo("db_ms=1.500 upstream_ms=2.500");
+    }
+
+    @Test
+    void listsKnownPhasesInAFixedOrder() {
+        RequestTimings timings = RequestTimings.start();
+
+        RequestTimings.add("cache", 250_000);
+        RequestTimings.add("serialize", 100_000);
+        RequestTimings.add("sql", 500_000);
+        RequestTimings.add("db", 1_000_000);
+
+        assertThat(timings.toHeader(2_000_000))
+                .isEqualTo("db;dur=1.000, sql;dur=0.500, serialize;dur=0.100, cache;dur=0.250, total;dur=2.000");
+        assertThat(timings.toLog()).isEqualTo("db_ms=1.000 sql_ms=0.500 serialize_ms=0.100 cache_ms=0.250");
+    }
+
+    @Test
+    void finishClosesSerialization() {
+        RequestTimings timings = RequestTimings.start();
+        timings.markSerialization();
+
+        long total = timings.finish();
+
+        assertThat(total).isPositive();
+        assertThat(timings.toLog()).startsWith("serialize_ms=");
+    }
+
+    @Test
+    void timeRecordsEvenWhenCallFails() {
+        RequestTimings timings = RequestTimings.start();
+
+        try {
+            RequestTimings.time("upstream", () -> {
+                throw new IllegalStateException("down");
+            });
+        } catch (IllegalStateException expected) {
+            // recorded below
+        }
+
+        assertThat(timings.toLog()).startsWith("upstream_ms=");
+    }
+}
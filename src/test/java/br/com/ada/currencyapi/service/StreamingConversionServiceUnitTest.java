@@ -0,0 +1,265 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.ada.currencyapi.config.AuditProperties;
+import br.com.ada.currencyapi.domain.ConversionAudit;
+import br.com.ada.currencyapi.domain.ConversionAudit.Source;
+import br.com.ada.currencyapi.repository.ExchangeJdbcRepository;
+import br.com.ada.currencyapi.service.StreamingConversionService.Format;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class StreamingConversionServiceUnitTest {
+
+    @Mock
+    private ExchangeJdbcRepository exchangeJdbcRepository;
+
+    @Mock
+    private ConversionAuditor conversionAuditor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private StreamingConversionService streamingConversionService;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, BigDecimal> usd = Map.of("BRL", new BigDecimal("5.00"), "EUR", new BigDecimal("0.90"));
+        lenient().when(exchangeJdbcRepository.findRates(anyMap())).thenAnswer(invocation -> {
+            Map<String, Collection<String>> pairs = invocation.getArgument(0);
+            Map<String, Map<String, BigDecimal>> rates = new HashMap<>();
+            if (pairs.containsKey("USD")) {
+                Map<String, BigDecimal> asked = new HashMap<>(usd);
+                asked.keySet().retainAll(pairs.get("USD"));
+                rates.put("USD", asked);
+            }
+            return rates;
+        });
+        streamingConversionService = new StreamingConversionService(exchangeJdbcRepository, conversionAuditor, new ObjectMapper(), executor,
+                transactionManager, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void convertCsv() throws IOException {
+        String output = convert("""
+                from,to,amount
+                USD,BRL,10
+                USD,EUR,2
+
+                ETH,USD,1
+                USD,JPY,1
+                USD,BRL,abc
+                """, Format.CSV);
+
+        assertThat(output).isEqualTo("""
+                from,to,amount,converted,error
+                USD,BRL,10,50.00,
+                USD,EUR,2,1.80,
+                ETH,USD,1,,Coin not found: ETH
+                USD,JPY,1,,Exchange JPY not found for USD
+                USD,BRL,,,Invalid row
+                """);
+    }
+
+    @Test
+    void auditsConvertedRows() throws IOException {
+        convert("""
+                USD,BRL,10
+                USD,JPY,1
+                """, Format.CSV);
+
+        ArgumentCaptor<List<ConversionAudit>> audits = ArgumentCaptor.forClass(List.class);
+        verify(conversionAuditor).recordAll(audits.capture());
+        assertThat(audits.getValue()).singleElement().satisfies(audit -> {
+            assertThat(audit.getFromCurrency()).isEqualTo("USD");
+            assertThat(audit.getToCurrency()).isEqualTo("BRL");
+            assertThat(audit.getRate()).isEqualByComparingTo("5");
+            assertThat(audit.getSource()).isEqualTo(Source.STREAM);
+        });
+    }
+
+    @Test
+    void convertNdjson() throws IOException {
+        String output = convert("""
+                {"from":"USD","to":"BRL","amount":10}
+                {"from":"USD","to":"JPY","amount":1}
+                """, Format.NDJSON);
+
+        assertThat(output).isEqualTo("""
+                {"from":"USD","to":"BRL","amount":10,"converted":50.00}
+                {"from":"USD","to":"JPY","amount":1,"error":"Exchange JPY not found for USD"}
+                """);
+    }
+
+    @Test
+    void keepsInputOrderAcrossChunks() throws IOException {
+        String input = IntStream.range(0, 1_000)
+                .mapToObj(i -> "USD,BRL," + i)
+                .collect(Collectors.joining("\n"));
+
+        String[] lines = convert(input, Format.CSV).split("\n");
+
+        assertThat(lines).hasSize(1_001);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(lines[i + 1]).startsWith("USD,BRL," + i + ",");
+        }
+        // one lookup per chunk of two rows, each for the one pair it holds
+        verify(exchangeJdbcRepository, times(500)).findRates(Map.of("USD", Set.of("BRL")));
+    }
+
+    @Test
+    void everyLookupReadsTheUploadsSnapshot() throws IOException {
+        Thread caller = Thread.currentThread();
+        List<Thread> lookups = new ArrayList<>();
+        when(exchangeJdbcRepository.findRates(anyMap())).thenAnswer(invocation -> {
+            lookups.add(Thread.currentThread());
+            return Map.of();
+        });
+
+        convert("USD,BRL,1\nUSD,EUR,2\nUSD,BRL,3\nUSD,EUR,4\nUSD,BRL,5\n", Format.CSV);
+
+        // one read-only repeatable-read transaction for the upload, and every chunk looked up inside it
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+        assertThat(lookups).hasSize(3).containsOnly(caller);
+    }
+
+    @Test
+    void inFlightChunksStayBoundedForLargeInputs() throws IOException {
+        long rows = 1_000_000;
+        int chunkSize = 1_000;
+        int window = 3;
+        CountingOutputStream output = new CountingOutputStream();
+        // hand-written fakes: mocks would keep every lookup and audit batch for verification
+        LookupCountingRepository repository = new LookupCountingRepository(output, chunkSize);
+        StreamingConversionService service = new StreamingConversionService(repository, new NoOpAuditor(), new ObjectMapper(), executor,
+                transactionManager, chunkSize, window);
+
+        service.convert(new GeneratedRows(rows), output, Format.CSV);
+
+        assertThat(output.lines).isEqualTo(rows + 1);
+        assertThat(repository.lookups).isEqualTo(rows / chunkSize);
+        // a lookup runs while at most window chunks wait unwritten, give or take the writer's buffer
+        assertThat(repository.maxAhead).isLessThanOrEqualTo(window + 1);
+    }
+
+    private String convert(String input, Format format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        streamingConversionService.convert(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output, format);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static final class LookupCountingRepository extends ExchangeJdbcRepository {
+
+        private static final Map<String, Map<String, BigDecimal>> RATES = Map.of("USD", Map.of("EUR", new BigDecimal("0.90")));
+
+        private final CountingOutputStream output;
+        private final int chunkSize;
+        private long lookups;
+        private long maxAhead;
+
+        private LookupCountingRepository(CountingOutputStream output, int chunkSize) {
+            super(null);
+            this.output = output;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public Map<String, Map<String, BigDecimal>> findRates(Map<String, ? extends Collection<String>> pairs) {
+            long written = Math.max(0, output.lines - 1) / chunkSize;
+            maxAhead = Math.max(maxAhead, ++lookups - written);
+            return RATES;
+        }
+    }
+
+    private static final class NoOpAuditor extends ConversionAuditor {
+
+        private NoOpAuditor() {
+            super(new AuditProperties(), null, null, null, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public void recordAll(List<ConversionAudit> audits) {
+        }
+    }
+
+    private static final class GeneratedRows extends InputStream {
+
+        private final long rows;
+        private long row;
+        private byte[] current = new byte[0];
+        private int position;
+
+        private GeneratedRows(long rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == current.length) {
+                if (row == rows) {
+                    return -1;
+                }
+                current = ("USD,EUR," + row++ + "\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return current[position++];
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.ada.currencyapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.ada.currencyapi.config.UpstreamLimiterProperties;
+import br.com.ada.currencyapi.exception.UpstreamRateLimitException;
+import br.com.ada.currencyapi.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UpstreamLimiterUnitTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UpstreamLimiter limiter(double permitsPerSecond, int burst, int maxQueue, Duration interactiveTimeout, Duration backgroundTimeout) {
+        UpstreamLimiterProperties properties = new UpstreamLimiterProperties();
+        properties.setPermitsPerSecond(permitsPerSecond);
+        properties.setBurst(burst);
+        properties.setMaxQueue(maxQueue);
+        properties.setInteractiveTimeout(interactiveTimeout);
+        properties.setBackgroundTimeout(backgroundTimeout);
+        return new UpstreamLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    void burstIsGrantedImmediately() {
+        UpstreamLimiter limiter = limiter(1, 3, 10, Duration.ofMillis(10), Duration.ofMillis(10));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(UpstreamPriority.INTERACTIVE);
+        }
+
+        assertThat(meterRegistry.get("currency.upstream.wait").tag("priority", "interactive").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shedsWhenDeadlineCannotBeMet() {
+        UpstreamLimiter limiter = limiter(1, 1, 10, Duration.ofMillis(100), Duration.ofMillis(100));
+        limiter.acquire(UpstreamPriority.INTERACTIVE);
+
+        assertThatThrownBy(() -> limiter.acquire(UpstreamPriority.INTERACTIVE))
+                .isInstanceOf(UpstreamRateLimitException.class)
+                .satisfies(e -> assertThat(((UpstreamRateLimitException) e).getRetryAfter()).isGreaterThan(Duration.ofMillis(100)));
+        assertThat(meterRegistry.get("currency.upstream.shed").tag("reason", "deadline").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void waitsForTokenWithinDeadline() {
+        UpstreamLimiter limiter = limiter(20, 1, 10, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        limiter.acquire(UpstreamPriority.INTERACTIVE);
+
+        long start = System.nanoTime();
+        limiter.acquire(UpstreamPriority.INTERACTIVE);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(25));
+    }
+
+    @Test
+    void shedsWhenQueueIsFull() {
+        UpstreamLimiter limiter = limiter(1, 1, 0, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        limiter.acquire(UpstreamPriority.INTERACTIVE);
+
+        assertThatThrownBy(() -> limiter.acquire(UpstreamPriority.BACKGROUND))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessage("Quote API queue is full, try again later");
+    }
+
+    @Test
+    void interactiveGoesAheadOfBackground() throws Exception {
+        UpstreamLimiter limiter = limiter(5, 1, 10, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        limiter.acquire(UpstreamPriority.INTERACTIVE);
+        List<UpstreamPriority> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> background = CompletableFuture.runAsync(() -> {
+            limiter.acquire(UpstreamPriority.BACKGROUND);
+            order.add(UpstreamPriority.BACKGROUND);
+        });
+        Thread.sleep(50);
+        CompletableFuture<Void> interactive = CompletableFuture.runAsync(() -> {
+            limiter.acquire(UpstreamPriority.INTERACTIVE);
+            order.add(UpstreamPriority.INTERACTIVE);
+        });
+
+        CompletableFuture.allOf(background, interactive).get();
+        assertThat(order).containsExactly(UpstreamPriority.INTERACTIVE, UpstreamPriority.BACKGROUND);
+    }
+
+    @Test
+    void disabledLimiterNeverWaits() {
+        UpstreamLimiterProperties properties = new UpstreamLimiterProperties();
+        properties.setEnabled(false);
+        properties.setBurst(0);
+        UpstreamLimiter limiter = new UpstreamLimiter(properties, meterRegistry);
+
+        limiter.acquire(UpstreamPriority.INTERACTIVE);
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.ada.currencyapi.support;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import javax.sql.DataSource;
+
+/**
+ * Loads a synthetic catalogue of {@code currencies} currencies with {@code exchangesPerCurrency} rates
+ * each straight through JDBC batches, bypassing Hibernate, so 100k currencies load in seconds on H2 or
+ * a local PostgreSQL. Currency {@code i} is named {@code C000042} and quotes the next
+ * {@code exchangesPerCurrency} currencies in a ring, so any generated pair can be rebuilt from its
+ * indexes without keeping the catalogue in memory. {@link #sampler(long)} draws pairs with a Zipf
+ * skew, the low indexes being the hot currencies.
+ */
+public class DatasetGenerator {
+
+    private final int currencies;
+    private final int exchangesPerCurrency;
+    private double skew = 1.0;
+    private int batchSize = 5_000;
+
+    private DatasetGenerator(int currencies, int exchangesPerCurrency) {
+        if (currencies < 2 || exchangesPerCurrency < 1 || exchangesPerCurrency >= currencies) {
+            throw new IllegalArgumentException("Need at least 2 currencies and between 1 and currencies - 1 exchanges per currency");
+        }
+        this.currencies = currencies;
+        this.exchangesPerCurrency = exchangesPerCurrency;
+    }
+
+    public static DatasetGenerator of(int currencies, int exchangesPerCurrency) {
+        return new DatasetGenerator(currencies, exchangesPerCurrency);
+    }
+
+    /**
+     * Zipf exponent of {@link #sampler(long)}; 0 is uniform, around 1 is typical of real traffic.
+     */
+    public DatasetGenerator skew(double skew) {
+        this.skew = skew;
+        return this;
+    }
+
+    public DatasetGenerator batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public int currencies() {
+        return currencies;
+    }
+
+    public int exchangesPerCurrency() {
+        return exchangesPerCurrency;
+    }
+
+    public static String name(int index) {
+        return "C%06d".formatted(index);
+    }
+
+    /**
+     * Index of the {@code j}-th currency quoted by currency {@code i}.
+     */
+    public int target(int i, int j) {
+        return (i + 1 + j) % currencies;
+    }
+
+    public static BigDecimal rate(int i, int j) {
+        return BigDecimal.valueOf(1 + (i * 31L + j * 17L) % 100_000, 4);
+    }
+
+    /**
+     * Replaces the whole catalogue and moves the id sequence past it, so the application can keep
+     * creating currencies. Returns the load time in milliseconds.
+     */
+    public long load(DataSource dataSource) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("delete from exchanges");
+                statement.executeUpdate("delete from currency");
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into currency (id, name, description) values (?, ?, ?)")) {
+                for (int i = 0; i < currencies; i++) {
+                    insert.setLong(1, i + 1L);
+                    insert.setString(2, name(i));
+                    insert.setString(3, "Synthetic coin " + i);
+                    insert.addBatch();
+                    if ((i + 1) % batchSize == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into exchanges (currency_id, currency_name, exchanges) values (?, ?, ?)")) {
+                long rows = 0;
+                for (int i = 0; i < currencies; i++) {
+                    for (int j = 0; j < exchangesPerCurrency; j++) {
+                        insert.setLong(1, i + 1L);
+                        insert.setString(2, name(target(i, j)));
+                        insert.setBigDecimal(3, rate(i, j));
+                        insert.addBatch();
+                        if (++rows % batchSize == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    if (i % 10_000 == 9_999) {
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                // past one allocation block of Hibernate's pooled optimizer
+                statement.execute("alter sequence currency_seq restart with " + (currencies + 101L));
+            }
+            connection.commit();
+            connection.setAutoCommit(autoCommit);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    public Sampler sampler(long seed) {
+        return new Sampler(seed);
+    }
+
+    /**
+     * Draws currencies and existing pairs with a Zipf distribution over currency indexes. Not thread-safe.
+     */
+    public final class Sampler {
+
+        private final SplittableRandom random;
+        private final double[] cumulative;
+
+        private Sampler(long seed) {
+            this.random = new SplittableRandom(seed);
+            this.cumulative = new double[currencies];
+            double total = 0;
+            for (int rank = 0; rank < currencies; rank++) {
+                total += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < currencies; rank++) {
+                cumulative[rank] /= total;
+            }
+        }
+
+        public int currency() {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(currencies - 1, index >= 0 ? index : -index - 1);
+        }
+
+        /**
+         * {@code {from, to}} of a pair that exists in the catalogue.
+         */
+        public String[] pair() {
+            int from = currency();
+            return new String[] {name(from), name(target(from, random.nextInt(exchangesPerCurrency)))};
+        }
+    }
+}
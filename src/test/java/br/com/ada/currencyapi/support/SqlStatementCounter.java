@@ -0,0 +1,102 @@
+package br.com.ada.currencyapi.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps the {@code dataSource} bean and records every statement executed on the thread that called
+ * {@link #start()}, whether issued by Hibernate or by plain JDBC. A JDBC batch counts as one
+ * statement, since it is one round-trip. Import it into a {@code @SpringBootTest} to use it.
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private volatile Thread owner;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                Object result = invoke(dataSource, method, args);
+                return result instanceof Connection connection ? proxy(Connection.class, connectionHandler(connection)) : result;
+            });
+        }
+        return bean;
+    }
+
+    public void start() {
+        statements.clear();
+        owner = Thread.currentThread();
+    }
+
+    public List<String> stop() {
+        owner = null;
+        return List.copyOf(statements);
+    }
+
+    /**
+     * Statements grouped by SQL, most frequent first, for assertion messages.
+     */
+    public static String describe(List<String> statements) {
+        Map<String, Long> counts = statements.stream()
+                .collect(Collectors.groupingBy(sql -> sql, TreeMap::new, Collectors.counting()));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(entry -> "  %4d x %s".formatted(entry.getValue(), entry.getKey()))
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    private InvocationHandler connectionHandler(Connection connection) {
+        return (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statementHandler(statement, null));
+            }
+            return result;
+        };
+    }
+
+    private InvocationHandler statementHandler(Statement statement, String preparedSql) {
+        return (proxy, method, args) -> {
+            if (method.getName().startsWith("execute") && Thread.currentThread() == owner) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                statements.add(method.getName().equals("executeBatch") ? "[batch] " + sql : String.valueOf(sql));
+            }
+            return invoke(statement, method, args);
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.ada.currencyapi.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the quote providers: the awesomeapi endpoint ({@code GET /last/USD-EUR,USD-BRL})
+ * and the frankfurter one ({@code GET /latest?from=USD&to=EUR}), with a configurable response delay
+ * and in-flight request accounting.
+ */
+public class StubQuoteServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, BigDecimal> quotes = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Duration delay;
+
+    private StubQuoteServer(Duration delay) throws IOException {
+        this.delay = delay;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/last/", this::handle);
+        this.server.createContext("/latest", this::handleLatest);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public static StubQuoteServer start(Duration delay) {
+        try {
+            return new StubQuoteServer(delay);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String url() {
+        return "http://localhost:%d".formatted(server.getAddress().getPort());
+    }
+
+    public StubQuoteServer quote(String from, String to, BigDecimal low) {
+        quotes.put(from + to, low);
+        return this;
+    }
+
+    public void delay(Duration delay) {
+        this.delay = delay;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(delay.toMillis());
+
+            String codes = exchange.getRequestURI().getPath().substring("/last/".length());
+            StringJoiner body = new StringJoiner(",", "{", "}");
+            for (String code : codes.split(",")) {
+                String[] pair = code.split("-");
+                BigDecimal low = pair.length == 2 ? quotes.get(pair[0] + pair[1]) : null;
+                if (low == null) {
+                    respond(exchange, 404, "{\"status\":404,\"code\":\"CoinNotExists\"}");
+                    return;
+                }
+                body.add(("\"%s%s\":{\"code\":\"%s\",\"codein\":\"%s\",\"name\":\"%s/%s\",\"high\":\"%s\",\"low\":\"%s\","
+                        + "\"varBid\":\"0\",\"pctChange\":\"0\",\"bid\":\"%s\",\"ask\":\"%s\",\"timestamp\":\"0\","
+                        + "\"create_date\":\"2024-01-01 00:00:00\"}")
+                        .formatted(pair[0], pair[1], pair[0], pair[1], pair[0], pair[1],
+                                low.toPlainString(), low.toPlainString(), low.toPlainString(), low.toPlainString()));
+            }
+            respond(exchange, 200, body.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{}");
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void handleLatest(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(delay.toMillis());
+
+            Map<String, String> query = new HashMap<>();
+            for (String param : exchange.getRequestURI().getQuery().split("&")) {
+                String[] pair = param.split("=", 2);
+                query.put(pair[0], pair.length == 2 ? pair[1] : "");
+            }
+            String from = query.get("from");
+            String to = query.get("to");
+            BigDecimal rate = quotes.get(from + to);
+            if (rate == null) {
+                respond(exchange, 404, "{\"message\":\"not found\"}");
+                return;
+            }
+            respond(exchange, 200, "{\"amount\":1.0,\"base\":\"%s\",\"date\":\"2024-01-01\",\"rates\":{\"%s\":%s}}"
+                    .formatted(from, to, rate.toPlainString()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{}");
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}